@@ -0,0 +1,277 @@
+package com.musdb.photoservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Sık istenen fotoğrafların içeriğini heap dışında (direct ByteBuffer) tutan, byte bütçeli segmented LRU önbellek.
+// Yeni girdiler probation bölümüne girer, ikinci erişimde protected bölüme terfi eder; tek seferlik
+// istekler sıcak fotoğrafları önbellekten atamaz. Direct buffer'lar referansı kalmayınca GC tarafından serbest bırakılır,
+// bu yüzden -XX:MaxDirectMemorySize değeri photo.cache.max-bytes'tan büyük olmalıdır.
+// Kilit ReentrantLock'tur; virtual thread'ler kilit beklerken carrier thread'i bloke etmez. Disk okuması her zaman kilit dışındadır.
+// Aynı anahtar için eşzamanlı ıskalamalarda dosyayı tek istek okur, diğerleri onun sonucunu bekler.
+@Component
+public class PhotoBytesCache implements MeterBinder {
+    private final LinkedHashMap<String, ByteBuffer> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, ByteBuffer> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<String, CompletableFuture<ByteBuffer>> inFlight = new ConcurrentHashMap<>();
+
+    private long probationBytes;
+    private long protectedBytes;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    @Value("${photo.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${photo.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${photo.cache.max-entry-bytes:2097152}")
+    private long maxEntryBytes;
+
+    @Value("${photo.cache.protected-ratio:0.8}")
+    private double protectedRatio;
+
+    public boolean isCacheable(long contentLength) {
+        return enabled && contentLength > 0 && contentLength <= maxEntryBytes && contentLength <= maxBytes;
+    }
+
+    // Önbellekte yoksa dosya kilit dışında okunur ve eklenir; dönen buffer çağırana özeldir (salt okunur kopya görünüm)
+    public ByteBuffer get(String key, Path path, long contentLength) throws IOException {
+        ByteBuffer cached = lookup(key);
+        if (cached != null) {
+            return cached.duplicate();
+        }
+
+        CompletableFuture<ByteBuffer> loading = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> running = inFlight.putIfAbsent(key, loading);
+        if (running != null) {
+            try {
+                return running.join().duplicate();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // Önceki yükleyici lookup ile putIfAbsent arasında bitirmiş olabilir
+            ByteBuffer loaded = peek(key);
+            if (loaded == null) {
+                loaded = load(path, contentLength);
+                put(key, loaded, loading);
+            }
+            loading.complete(loaded);
+            return loaded.duplicate();
+        } catch (IOException | RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    // Sürmekte olan bir yükleme varsa sonucu önbelleğe eklenmez
+    public void evict(String key) {
+        lock.lock();
+        try {
+            inFlight.remove(key);
+
+            ByteBuffer removed = probation.remove(key);
+            if (removed != null) {
+                probationBytes -= removed.capacity();
+            }
+
+            removed = protectedSegment.remove(key);
+            if (removed != null) {
+                protectedBytes -= removed.capacity();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ByteBuffer lookup(String key) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = protectedSegment.get(key);
+            if (buffer != null) {
+                hitCount++;
+                return buffer;
+            }
+
+            buffer = probation.remove(key);
+            if (buffer == null) {
+                missCount++;
+                return null;
+            }
+
+            // İkinci erişim: protected bölüme terfi, taşan protected girdileri probation'a geri düşer
+            hitCount++;
+            probationBytes -= buffer.capacity();
+            protectedSegment.put(key, buffer);
+            protectedBytes += buffer.capacity();
+
+            long protectedBudget = (long) (maxBytes * protectedRatio);
+            Iterator<Map.Entry<String, ByteBuffer>> iterator = protectedSegment.entrySet().iterator();
+            while (protectedBytes > protectedBudget && iterator.hasNext()) {
+                Map.Entry<String, ByteBuffer> eldest = iterator.next();
+                iterator.remove();
+                protectedBytes -= eldest.getValue().capacity();
+                probation.put(eldest.getKey(), eldest.getValue());
+                probationBytes += eldest.getValue().capacity();
+            }
+
+            return buffer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // İstatistik ve terfi olmadan bakar
+    private ByteBuffer peek(String key) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = protectedSegment.get(key);
+            return buffer != null ? buffer : probation.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String key, ByteBuffer buffer, CompletableFuture<ByteBuffer> loading) {
+        lock.lock();
+        try {
+            // Yükleme sürerken anahtar evict edildi
+            if (inFlight.get(key) != loading) {
+                return;
+            }
+            if (probation.containsKey(key) || protectedSegment.containsKey(key)) {
+                return;
+            }
+
+            probation.put(key, buffer);
+            probationBytes += buffer.capacity();
+
+            evictOverflow(probation, true);
+            evictOverflow(protectedSegment, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow(LinkedHashMap<String, ByteBuffer> segment, boolean isProbation) {
+        Iterator<Map.Entry<String, ByteBuffer>> iterator = segment.entrySet().iterator();
+        while (probationBytes + protectedBytes > maxBytes && iterator.hasNext()) {
+            long size = iterator.next().getValue().capacity();
+            iterator.remove();
+            if (isProbation) {
+                probationBytes -= size;
+            } else {
+                protectedBytes -= size;
+            }
+            evictionCount++;
+        }
+    }
+
+    // Paket içi: testler okuma sayısını doğrular
+    ByteBuffer load(Path path, long contentLength) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) contentLength);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // dosya sonuna kadar oku
+            }
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private long hits() {
+        lock.lock();
+        try {
+            return hitCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long misses() {
+        lock.lock();
+        try {
+            return missCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long evictions() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long sizeInBytes() {
+        lock.lock();
+        try {
+            return probationBytes + protectedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int entries() {
+        lock.lock();
+        try {
+            return probation.size() + protectedSegment.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("photo.cache.gets", this, PhotoBytesCache::hits)
+                .tag("result", "hit")
+                .description("Photo content served from the off-heap cache")
+                .register(registry);
+        FunctionCounter.builder("photo.cache.gets", this, PhotoBytesCache::misses)
+                .tag("result", "miss")
+                .description("Photo content loaded from disk")
+                .register(registry);
+        FunctionCounter.builder("photo.cache.evictions", this, PhotoBytesCache::evictions)
+                .description("Entries evicted to stay within the byte budget")
+                .register(registry);
+        Gauge.builder("photo.cache.size", this, PhotoBytesCache::sizeInBytes)
+                .baseUnit("bytes")
+                .description("Off-heap bytes held by the photo cache")
+                .register(registry);
+        Gauge.builder("photo.cache.entries", this, PhotoBytesCache::entries)
+                .description("Number of photos held by the photo cache")
+                .register(registry);
+    }
+}
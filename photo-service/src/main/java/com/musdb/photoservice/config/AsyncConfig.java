@@ -0,0 +1,35 @@
+package com.musdb.photoservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Value("${photo.variants.pool-size:2}")
+    private int variantPoolSize;
+
+    @Value("${photo.variants.queue-capacity:100}")
+    private int variantQueueCapacity;
+
+    // Görüntü işleme CPU yoğun olduğu için virtual thread modunda da sabit boyutlu platform thread havuzu kullanılır.
+    // Kuyruk dolarsa iş düşürülür; eksik boyutlar ilk istekte zaten üretilir
+    @Bean
+    public ThreadPoolTaskExecutor photoVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(variantPoolSize);
+        executor.setMaxPoolSize(variantPoolSize);
+        executor.setQueueCapacity(variantQueueCapacity);
+        executor.setThreadNamePrefix("photo-variant-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Photo variant queue is full, variants will be generated on demand"));
+        return executor;
+    }
+}
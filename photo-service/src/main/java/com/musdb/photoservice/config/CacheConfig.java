@@ -0,0 +1,26 @@
+package com.musdb.photoservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Fotoğraf bilgisi (PhotoDto) önbelleği; boyut ve süre sınırları photo.metadata-cache.spec (Caffeine spec) ile ayarlanır.
+// Silmeler commit sonrasına ertelenir; commit öncesinde yapılan bir okuma eski veriyi önbelleğe alsa bile silinir.
+// Hit/miss istatistikleri actuator'da cache.gets metriği olarak yayınlanır.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PHOTO_METADATA = "photoMetadata";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${photo.metadata-cache.spec}") String metadataSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PHOTO_METADATA);
+        cacheManager.setCacheSpecification(metadataSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
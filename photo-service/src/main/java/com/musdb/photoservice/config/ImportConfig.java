@@ -0,0 +1,33 @@
+package com.musdb.photoservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportConfig {
+    @Value("${photo.import.copy-threads:4}")
+    private int copyThreads;
+
+    // Dosya kopyalama ve özet hesaplama sabit boyutlu havuzda yapılır, disk eşzamanlı okuma sayısı kadar yüklenir.
+    // Kuyruk sınırı içe aktarma hattındaki bekleyen parti sınırıdır, havuz ayrıca sınırlanmaz
+    @Bean
+    public ThreadPoolTaskExecutor photoImportCopyExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(copyThreads);
+        executor.setMaxPoolSize(copyThreads);
+        executor.setThreadNamePrefix("photo-import-copy-");
+        return executor;
+    }
+
+    // Aynı anda tek içe aktarma çalışır: biri manifesti okur, diğeri partileri yazar
+    @Bean
+    public ThreadPoolTaskExecutor photoImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("photo-import-");
+        return executor;
+    }
+}
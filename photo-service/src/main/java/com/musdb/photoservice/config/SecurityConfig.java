@@ -33,6 +33,8 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui.html").permitAll()
 
                         .requestMatchers("/api/photos/{photoId}/view").permitAll()
+                        .requestMatchers("/api/photos/export").hasRole("ADMIN")
+                        .requestMatchers("/api/photos/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -0,0 +1,87 @@
+package com.musdb.photoservice.controller;
+
+import com.musdb.photoservice.dto.CursorPageDto;
+import com.musdb.photoservice.dto.FileReaperStatsDto;
+import com.musdb.photoservice.dto.ImportJobDto;
+import com.musdb.photoservice.dto.ImportRequestDto;
+import com.musdb.photoservice.dto.OutboxEventDto;
+import com.musdb.photoservice.job.FileTombstoneReaper;
+import com.musdb.photoservice.service.OutboxService;
+import com.musdb.photoservice.service.PhotoImportService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/photos/admin")
+public class PhotoAdminController {
+    private final FileTombstoneReaper fileTombstoneReaper;
+    private final OutboxService outboxService;
+    private final PhotoImportService photoImportService;
+
+    @Autowired
+    public PhotoAdminController(FileTombstoneReaper fileTombstoneReaper,
+                                OutboxService outboxService,
+                                PhotoImportService photoImportService) {
+        this.fileTombstoneReaper = fileTombstoneReaper;
+        this.outboxService = outboxService;
+        this.photoImportService = photoImportService;
+    }
+
+    // Silinmeyi bekleyen dosya kuyruğu ve reaper'ın hızı
+    @GetMapping("/file-deletions")
+    public ResponseEntity<FileReaperStatsDto> getFileDeletionStats() {
+        return ResponseEntity.ok(fileTombstoneReaper.getStats());
+    }
+
+    // Yayınlanan olaylar retention süresince buradan cursor ile tekrar okunabilir
+    @GetMapping("/events")
+    public ResponseEntity<CursorPageDto<OutboxEventDto>> getEvents(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(outboxService.getEvents(cursor, limit));
+    }
+
+    // after'dan sonraki olaylar broker'a tekrar gönderilir
+    @PostMapping("/events/replay")
+    public ResponseEntity<Map<String, Integer>> replayEvents(@RequestParam(value = "after", required = false) Long after) {
+        return ResponseEntity.ok(Map.of("requeued", outboxService.replayAfter(after)));
+    }
+
+    // İçe aktarma arka planda çalışır; ilerleme ve throughput raporu GET /imports/{jobId} ile izlenir
+    @PostMapping("/imports")
+    public ResponseEntity<ImportJobDto> startImport(@Valid @RequestBody ImportRequestDto importRequest) {
+        return new ResponseEntity<>(photoImportService.startImport(importRequest), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportJobDto>> getImports() {
+        return ResponseEntity.ok(photoImportService.getImports());
+    }
+
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable Long jobId) {
+        return ResponseEntity.ok(photoImportService.getImport(jobId));
+    }
+
+    @PostMapping("/imports/{jobId}/resume")
+    public ResponseEntity<ImportJobDto> resumeImport(@PathVariable Long jobId) {
+        return new ResponseEntity<>(photoImportService.resumeImport(jobId), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/imports/{jobId}/cancel")
+    public ResponseEntity<ImportJobDto> cancelImport(@PathVariable Long jobId) {
+        return ResponseEntity.ok(photoImportService.cancelImport(jobId));
+    }
+}
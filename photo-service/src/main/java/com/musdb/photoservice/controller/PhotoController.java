@@ -1,42 +1,45 @@
 package com.musdb.photoservice.controller;
 
+import com.musdb.photoservice.dto.BatchLookupRequestDto;
+import com.musdb.photoservice.dto.BatchLookupResultDto;
+import com.musdb.photoservice.dto.CursorPageDto;
 import com.musdb.photoservice.dto.PhotoDto;
-import com.musdb.photoservice.dto.PhotoUploadDto;
+import com.musdb.photoservice.model.PhotoSize;
 import com.musdb.photoservice.service.PhotoService;
+import com.musdb.photoservice.web.MultipartPhotoUploadReader;
+import com.musdb.photoservice.web.PhotoContentWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/photos")
 public class PhotoController {
     private final PhotoService photoService;
+    private final PhotoContentWriter photoContentWriter;
+    private final MultipartPhotoUploadReader multipartPhotoUploadReader;
 
     @Autowired
-    public PhotoController(PhotoService photoService) {
+    public PhotoController(PhotoService photoService,
+                           PhotoContentWriter photoContentWriter,
+                           MultipartPhotoUploadReader multipartPhotoUploadReader) {
         this.photoService = photoService;
+        this.photoContentWriter = photoContentWriter;
+        this.multipartPhotoUploadReader = multipartPhotoUploadReader;
     }
 
+    // Form alanları (photoName, userId, description) "file" parçasından önce gönderilirse dosya ara kopya olmadan depoya akar
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<PhotoDto> uploadPhoto(
-            @RequestParam("file") MultipartFile file,
-            @RequestParam("photoName") String photoName,
-            @RequestParam("userId") Long userId,
-            @RequestParam(value = "description", required = false) String description) {
-        PhotoUploadDto photoUploadDto = new PhotoUploadDto();
-        photoUploadDto.setFile(file);
-        photoUploadDto.setPhotoName(photoName);
-        photoUploadDto.setDescription(description);
-        photoUploadDto.setUserId(userId);
-
-        return new ResponseEntity<>(photoService.uploadPhoto(photoUploadDto), HttpStatus.CREATED);
+    public ResponseEntity<PhotoDto> uploadPhoto(HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(multipartPhotoUploadReader.read(request, photoService::uploadPhoto), HttpStatus.CREATED);
     }
 
     @GetMapping("/{photoId}")
@@ -45,41 +48,46 @@ public class PhotoController {
     }
 
     @GetMapping("/{photoId}/view")
-    public ResponseEntity<byte[]>  viewPhoto(@PathVariable Long photoId) {
-        byte[] photoData = photoService.getPhotoData(photoId);
-        PhotoDto photoDto = new PhotoDto();
-
-        HttpHeaders headers = new HttpHeaders();
-        String contentType = "image/jpeg";
-
-        if (photoDto.getPhotoDescription() != null) {
-            contentType = switch (photoDto.getPhotoDescription().toLowerCase()) {
-                case "png" -> "image/png";
-                case "gif" -> "image/gif";
-                case "jpg", "jpeg" -> "image/jpeg";
-                default -> contentType;
-            };
-        }
-
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentDispositionFormData("attachment", photoDto.getPhotoName());
+    public void viewPhoto(@PathVariable Long photoId,
+                          @RequestParam(value = "size", required = false) PhotoSize size,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        photoContentWriter.write(photoService.getPhotoContent(photoId, size), request, response);
+    }
 
-        return new ResponseEntity<>(photoData, headers, HttpStatus.OK);
+    @PostMapping("/batch")
+    public ResponseEntity<BatchLookupResultDto<PhotoDto>> getPhotosByIds(@RequestBody BatchLookupRequestDto request) {
+        return ResponseEntity.ok(photoService.getPhotosByIds(request.getIds()));
     }
 
     @GetMapping
-    public ResponseEntity<List<PhotoDto>> getAllPhotos() {
-        return ResponseEntity.ok(photoService.getAllPhotos());
+    public ResponseEntity<CursorPageDto<PhotoDto>> getAllPhotos(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(photoService.getAllPhotos(cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPhotos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(photoService::exportPhotos);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PhotoDto>> getPhotosByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(photoService.getPhotosByUserId(userId));
+    public ResponseEntity<CursorPageDto<PhotoDto>> getPhotosByUserId(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(photoService.getPhotosByUserId(userId, cursor, limit));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<PhotoDto>> searchPhotosByName(@RequestParam String name) {
-        return ResponseEntity.ok(photoService.searchPhotosByName(name));
+    public ResponseEntity<CursorPageDto<PhotoDto>> searchPhotosByName(
+            @RequestParam String name,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(photoService.searchPhotosByName(name, cursor, limit));
     }
 
     @PutMapping("/{photoId}")
@@ -0,0 +1,57 @@
+package com.musdb.photoservice.controller;
+
+import com.musdb.photoservice.dto.PhotoDto;
+import com.musdb.photoservice.dto.UploadSessionDto;
+import com.musdb.photoservice.dto.UploadSessionRequestDto;
+import com.musdb.photoservice.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// Büyük fotoğraflar için kaldığı yerden devam edebilen yükleme:
+// oturum aç, parçaları offset ve SHA-256 özetiyle PUT et, kesinti olursa GET ile offset'i öğren, sonunda complete çağır.
+@RestController
+@RequestMapping("/api/photos/uploads")
+public class UploadSessionController {
+    private final UploadSessionService uploadSessionService;
+
+    @Autowired
+    public UploadSessionController(UploadSessionService uploadSessionService) {
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDto> createSession(@Valid @RequestBody UploadSessionRequestDto uploadSessionRequestDto) {
+        return new ResponseEntity<>(uploadSessionService.createSession(uploadSessionRequestDto), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDto> getSession(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadSessionService.getSession(uploadId));
+    }
+
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDto> appendChunk(@PathVariable String uploadId,
+                                                        @RequestParam long offset,
+                                                        @RequestHeader("X-Chunk-Checksum") String checksum,
+                                                        HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.appendChunk(uploadId, offset, checksum, request.getInputStream()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<PhotoDto> completeSession(@PathVariable String uploadId) {
+        return new ResponseEntity<>(uploadSessionService.completeSession(uploadId), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortSession(@PathVariable String uploadId) {
+        uploadSessionService.abortSession(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
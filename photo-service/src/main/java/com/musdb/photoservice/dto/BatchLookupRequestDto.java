@@ -0,0 +1,10 @@
+package com.musdb.photoservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchLookupRequestDto {
+    private List<Long> ids;
+}
@@ -0,0 +1,18 @@
+package com.musdb.photoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// items istekteki id sırasını korur; bulunamayan ya da silinmiş kayıtlar missingIds'te döner
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResultDto<T> {
+    private List<T> items;
+    private List<Long> missingIds;
+}
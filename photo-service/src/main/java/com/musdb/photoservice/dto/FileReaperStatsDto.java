@@ -0,0 +1,26 @@
+package com.musdb.photoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Toplamlar bu instance başlatıldığından beri sayılır; bekleyen kayıtlar tüm instance'lar için veritabanından okunur
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileReaperStatsDto {
+    private long pending;
+    private long due;
+    private long retrying;
+    private LocalDateTime oldestPendingAt;
+    private long deletedTotal;
+    private long failedTotal;
+    private LocalDateTime lastRunAt;
+    private long lastRunDeleted;
+    private long lastRunMillis;
+    private double lastRunPerSecond;
+}
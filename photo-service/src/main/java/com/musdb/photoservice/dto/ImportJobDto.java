@@ -0,0 +1,32 @@
+package com.musdb.photoservice.dto;
+
+import com.musdb.photoservice.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private Long jobId;
+    private String manifest;
+    private ImportStatus status;
+    private long recordsCommitted;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private long parseMillis;
+    private long prepareMillis;
+    private long writeMillis;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
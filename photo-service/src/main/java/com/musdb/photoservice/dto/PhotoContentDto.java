@@ -0,0 +1,24 @@
+package com.musdb.photoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+// Photo bytes are never loaded here, only the file location and the metadata needed to stream it.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoContentDto {
+    private Long photoId;
+    private String photoName;
+    private String photoExtension;
+    private String storageKey;
+    private Path filePath;
+    private String contentHash;
+    private long contentLength;
+    private long lastModified;
+}
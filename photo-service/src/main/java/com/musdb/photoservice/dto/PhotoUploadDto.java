@@ -3,12 +3,14 @@ package com.musdb.photoservice.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
+// content isteğin gövdesinden okunan akıştır; uploadPhoto dönene kadar açık kalır ve yalnızca bir kez okunabilir.
 @Data
 public class PhotoUploadDto {
     @NotNull(message = "Photo file is required")
-    private MultipartFile file;
+    private InputStream content;
 
     @NotBlank(message = "Photo name is required")
     private String photoName;
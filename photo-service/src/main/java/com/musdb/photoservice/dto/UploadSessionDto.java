@@ -0,0 +1,20 @@
+package com.musdb.photoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// receivedBytes bir sonraki parçanın gönderileceği offset'tir
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDto {
+    private String uploadId;
+    private Long totalSize;
+    private Long receivedBytes;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,10 @@
+package com.musdb.photoservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PhotoUploadedEvent {
+    private Long photoId;
+}
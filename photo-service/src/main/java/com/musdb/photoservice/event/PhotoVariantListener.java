@@ -0,0 +1,25 @@
+package com.musdb.photoservice.event;
+
+import com.musdb.photoservice.service.PhotoVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class PhotoVariantListener {
+    private final PhotoVariantService photoVariantService;
+
+    @Autowired
+    public PhotoVariantListener(PhotoVariantService photoVariantService) {
+        this.photoVariantService = photoVariantService;
+    }
+
+    // Yükleme commit edildikten sonra, istek thread'ini bekletmeden boyutlar üretilir
+    @Async("photoVariantExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPhotoUploaded(PhotoUploadedEvent event) {
+        photoVariantService.generateVariants(event.getPhotoId());
+    }
+}
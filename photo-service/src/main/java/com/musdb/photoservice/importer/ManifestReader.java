@@ -0,0 +1,152 @@
+package com.musdb.photoservice.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// İçe aktarma manifestini satır satır okur, dosyanın tamamı belleğe alınmaz.
+// .csv: ilk satır başlıktır; tırnaklı alan ve "" kaçışı desteklenir, alan içinde satır sonu desteklenmez.
+// .ndjson / .jsonl: her satır tek bir JSON nesnesidir. Boş satırlar atlanır ve numara almaz.
+public class ManifestReader implements Closeable {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final boolean csv;
+    private final List<String> header;
+    private long number;
+
+    private ManifestReader(BufferedReader reader, ObjectMapper objectMapper, boolean csv) throws IOException {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.csv = csv;
+        this.header = csv ? readHeader() : List.of();
+    }
+
+    public static ManifestReader open(Path manifest, ObjectMapper objectMapper) throws IOException {
+        if (!supports(manifest)) {
+            throw new IllegalArgumentException("Manifest must be a .csv, .ndjson or .jsonl file");
+        }
+        boolean csv = manifest.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+
+        BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8);
+        try {
+            return new ManifestReader(reader, objectMapper, csv);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    public static boolean supports(Path manifest) {
+        String name = manifest.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    // Dosya sonunda null döner
+    public ManifestRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        number++;
+        try {
+            return new ManifestRecord(number, csv ? parseCsv(line) : parseJson(line), null);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return new ManifestRecord(number, Map.of(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readHeader() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return List.of();
+        }
+        // UTF-8 BOM
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        return splitCsv(line).stream().map(String::trim).toList();
+    }
+
+    private Map<String, String> parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    private Map<String, String> parseJson(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(field -> {
+            if (!field.getValue().isNull()) {
+                fields.put(field.getKey(), field.getValue().asText());
+            }
+        });
+        return fields;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,162 @@
+package com.musdb.photoservice.job;
+
+import com.musdb.photoservice.cache.PhotoBytesCache;
+import com.musdb.photoservice.dto.FileReaperStatsDto;
+import com.musdb.photoservice.model.FileTombstone;
+import com.musdb.photoservice.repository.FileTombstoneRepository;
+import com.musdb.photoservice.storage.PhotoStorage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// file_tombstones tablosunu partiler halinde boşaltır. Parti kısa bir transaction'da kiralanır (next_attempt_at ileri alınır),
+// her dosya kendi transaction'ında silinir; hata alan kayıt üstel artan bekleme ile tekrar denenir.
+@Component
+public class FileTombstoneReaper implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(FileTombstoneReaper.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final FileTombstoneRepository fileTombstoneRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoBytesCache photoBytesCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong deletedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunDeleted;
+    private volatile long lastRunMillis;
+
+    @Value("${photo.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${photo.reaper.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${photo.reaper.retry-delay:PT1M}")
+    private Duration retryDelay;
+
+    @Value("${photo.reaper.max-retry-delay:PT1H}")
+    private Duration maxRetryDelay;
+
+    @Autowired
+    public FileTombstoneReaper(FileTombstoneRepository fileTombstoneRepository,
+                               PhotoStorage photoStorage,
+                               PhotoBytesCache photoBytesCache,
+                               PlatformTransactionManager transactionManager) {
+        this.fileTombstoneRepository = fileTombstoneRepository;
+        this.photoStorage = photoStorage;
+        this.photoBytesCache = photoBytesCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${photo.reaper.initial-delay:PT30S}",
+            fixedDelayString = "${photo.reaper.interval:PT10S}")
+    public void reap() {
+        long startedAt = System.nanoTime();
+        long deleted = 0;
+
+        List<FileTombstone> batch;
+        do {
+            batch = claimBatch();
+            for (FileTombstone tombstone : batch) {
+                if (purge(tombstone)) {
+                    deleted++;
+                }
+            }
+        } while (batch.size() == batchSize);
+
+        lastRunAt = LocalDateTime.now();
+        lastRunDeleted = deleted;
+        lastRunMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+    }
+
+    public FileReaperStatsDto getStats() {
+        long millis = lastRunMillis;
+        long deleted = lastRunDeleted;
+
+        return FileReaperStatsDto.builder()
+                .pending(fileTombstoneRepository.count())
+                .due(fileTombstoneRepository.countByNextAttemptAtLessThanEqual(LocalDateTime.now()))
+                .retrying(fileTombstoneRepository.countByAttemptsGreaterThan(0))
+                .oldestPendingAt(fileTombstoneRepository.findFirstByOrderByCreatedAt().map(FileTombstone::getCreatedAt).orElse(null))
+                .deletedTotal(deletedTotal.get())
+                .failedTotal(failedTotal.get())
+                .lastRunAt(lastRunAt)
+                .lastRunDeleted(deleted)
+                .lastRunMillis(millis)
+                .lastRunPerSecond(millis > 0 ? deleted * 1000.0 / millis : deleted)
+                .build();
+    }
+
+    // Kiralanan kayıtlar lease süresi boyunca başka instance'lara görünmez; instance çökerse süre sonunda tekrar alınır
+    private List<FileTombstone> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<FileTombstone> due = fileTombstoneRepository.findDueForUpdate(now, Limit.of(batchSize));
+            due.forEach(tombstone -> tombstone.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+    }
+
+    private boolean purge(FileTombstone tombstone) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (photoStorage.purge(tombstone.getStorageKey())) {
+                    photoBytesCache.evict(tombstone.getStorageKey());
+                }
+                fileTombstoneRepository.deleteById(tombstone.getTombstoneId());
+            });
+            deletedTotal.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            failedTotal.incrementAndGet();
+            scheduleRetry(tombstone, e);
+            return false;
+        }
+    }
+
+    private void scheduleRetry(FileTombstone tombstone, RuntimeException error) {
+        int attempts = tombstone.getAttempts() + 1;
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 16));
+        if (delay.compareTo(maxRetryDelay) > 0) {
+            delay = maxRetryDelay;
+        }
+
+        log.warn("Could not delete file {} (attempt {}), retrying in {}: {}",
+                tombstone.getStorageKey(), attempts, delay, error.getMessage());
+
+        String message = String.valueOf(error.getMessage());
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(delay);
+        transactionTemplate.executeWithoutResult(status -> fileTombstoneRepository.findById(tombstone.getTombstoneId())
+                .ifPresent(current -> {
+                    current.setAttempts(attempts);
+                    current.setNextAttemptAt(nextAttemptAt);
+                    current.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                }));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("photo.reaper.deleted", deletedTotal, AtomicLong::get)
+                .description("File tombstones processed by the reaper")
+                .register(registry);
+        FunctionCounter.builder("photo.reaper.failures", failedTotal, AtomicLong::get)
+                .description("Failed file deletion attempts")
+                .register(registry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.musdb.photoservice.job;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.service.PhotoVariantService;
+import com.musdb.photoservice.storage.PhotoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Toplu silinen (pending_purge) fotoğrafların dosya ve küçük boyut referanslarını partiler halinde bırakır.
+// Partiler arasında beklenir ki büyük bir kütüphane silinirken veritabanı ve disk diğer isteklere yetişsin;
+// dosyaların kendisi tombstone'lar üzerinden FileTombstoneReaper tarafından silinir.
+@Component
+public class PhotoPurgeJob {
+    private static final Logger log = LoggerFactory.getLogger(PhotoPurgeJob.class);
+
+    private final PhotoRepository photoRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoVariantService photoVariantService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${photo.purge.batch-size:100}")
+    private int batchSize;
+
+    @Value("${photo.purge.batch-pause:PT0.2S}")
+    private Duration batchPause;
+
+    @Autowired
+    public PhotoPurgeJob(PhotoRepository photoRepository,
+                         PhotoStorage photoStorage,
+                         PhotoVariantService photoVariantService,
+                         PlatformTransactionManager transactionManager) {
+        this.photoRepository = photoRepository;
+        this.photoStorage = photoStorage;
+        this.photoVariantService = photoVariantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${photo.purge.initial-delay:PT30S}",
+            fixedDelayString = "${photo.purge.interval:PT10S}")
+    public void purgePending() {
+        long purged = 0;
+
+        int processed;
+        do {
+            processed = purgeBatch();
+            purged += processed;
+        } while (processed == batchSize && pause());
+
+        if (purged > 0) {
+            log.info("Released files of {} deleted photos", purged);
+        }
+    }
+
+    // Parti tek transaction'da işlenir; release tombstone'ları da aynı transaction'da yazılır
+    private int purgeBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<Photo> photos = photoRepository.findPendingPurgeForUpdate(Limit.of(batchSize));
+            for (Photo photo : photos) {
+                if (photo.getFilePath() != null) {
+                    photoStorage.release(photo.getFilePath());
+                }
+                photoVariantService.deleteVariants(photo.getPhotoId());
+                photo.setPendingPurge(false);
+            }
+            return photos.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
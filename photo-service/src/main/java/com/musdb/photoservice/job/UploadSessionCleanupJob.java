@@ -0,0 +1,32 @@
+package com.musdb.photoservice.job;
+
+import com.musdb.photoservice.service.UploadSessionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Tamamlanmayan, terk edilmiş parça parça yükleme oturumlarını ve diskteki yarım dosyalarını temizler.
+@Component
+@ConditionalOnProperty(prefix = "photo.upload.sessions.cleanup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UploadSessionCleanupJob {
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionCleanupJob.class);
+
+    private final UploadSessionService uploadSessionService;
+
+    @Autowired
+    public UploadSessionCleanupJob(UploadSessionService uploadSessionService) {
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    @Scheduled(initialDelayString = "${photo.upload.sessions.cleanup.initial-delay:PT5M}",
+            fixedDelayString = "${photo.upload.sessions.cleanup.interval:PT1H}")
+    public void removeExpiredSessions() {
+        int removed = uploadSessionService.removeExpiredSessions();
+        if (removed > 0) {
+            log.info("Removed {} abandoned upload sessions", removed);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.musdb.photoservice.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// user-service'in LocalDirectoryMessagePublisher'ı ile yazılan mesajları okur; gerçek bir broker yerine geliştirme ve test içindir.
+// Her topic dizini dosya adı (yayın sırası) sırasıyla işlenir, başarılı mesajın dosyası silinir.
+// Hata alan mesaj sırayı korumak için yerinde bırakılır; max-attempts sonunda .failed dizinine taşınır.
+// Tek tüketici varsayılır, aynı dizini okuyan birden fazla instance aynı mesajı işleyebilir (handler'lar idempotenttir).
+@Component
+@ConditionalOnProperty(prefix = "messaging.consumer", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LocalDirectoryMessageConsumer {
+    private static final Logger log = LoggerFactory.getLogger(LocalDirectoryMessageConsumer.class);
+    private static final String FAILED_DIR = ".failed";
+
+    private final List<MessageHandler<?>> handlers;
+    private final ObjectMapper objectMapper;
+    private final Map<Path, Integer> attempts = new ConcurrentHashMap<>();
+
+    @Value("${messaging.local.dir}")
+    private String brokerDir;
+
+    @Value("${messaging.consumer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Autowired
+    public LocalDirectoryMessageConsumer(List<MessageHandler<?>> handlers, ObjectMapper objectMapper) {
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+    }
+
+    @Scheduled(initialDelayString = "${messaging.consumer.initial-delay:PT5S}",
+            fixedDelayString = "${messaging.consumer.poll-interval:PT1S}")
+    public void poll() {
+        for (MessageHandler<?> handler : handlers) {
+            Path topicDir = Paths.get(brokerDir, handler.getTopic());
+            if (!Files.isDirectory(topicDir)) {
+                continue;
+            }
+
+            for (Path message : pendingMessages(topicDir)) {
+                if (!consume(handler, message)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private List<Path> pendingMessages(Path topicDir) {
+        try (Stream<Path> files = Files.list(topicDir)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Could not list messages in {}: {}", topicDir, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private <T> boolean consume(MessageHandler<T> handler, Path message) {
+        try {
+            JsonNode envelope = objectMapper.readTree(message.toFile());
+            handler.handle(objectMapper.treeToValue(envelope.get("payload"), handler.getPayloadType()));
+
+            Files.deleteIfExists(message);
+            attempts.remove(message);
+            return true;
+        } catch (NoSuchFileException e) {
+            // Başka bir tüketici işleyip silmiş
+            attempts.remove(message);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            int attempt = attempts.merge(message, 1, Integer::sum);
+            if (attempt < maxAttempts) {
+                log.warn("Could not process message {} (attempt {}): {}", message.getFileName(), attempt, e.getMessage());
+                return false;
+            }
+
+            log.error("Giving up on message {} after {} attempts", message.getFileName(), attempt, e);
+            attempts.remove(message);
+            return moveToFailed(message);
+        }
+    }
+
+    private boolean moveToFailed(Path message) {
+        try {
+            Path failedDir = Files.createDirectories(message.resolveSibling(FAILED_DIR));
+            Files.move(message, failedDir.resolve(message.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            log.error("Could not move message {} to {}: {}", message.getFileName(), FAILED_DIR, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.musdb.photoservice.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Gerçek bir broker yerine geçen yerel dizin kuyruğu (user-service'teki ile aynı biçim): her mesaj <dir>/<topic>/ altına ayrı bir JSON dosyası olarak yazılır.
+// Dosya önce geçici adla yazılıp atomik olarak taşınır, tüketici yarım dosya görmez. Dosya adları yayın sırasına göre sıralanır.
+// Geliştirme ortamı ve testler içindir; servisler aynı makinede aynı messaging.local.dir değerini kullanmalıdır.
+// Tüketicisi olmayan topic'lerin (ör. user.updated) dosyalarını kimse silmez; retention süresini aşan dosyalar bu sınıf tarafından silinir.
+@Component
+@ConditionalOnProperty(prefix = "messaging", name = "publisher", havingValue = "local", matchIfMissing = true)
+public class LocalDirectoryMessagePublisher implements MessagePublisher {
+    private static final Logger log = LoggerFactory.getLogger(LocalDirectoryMessagePublisher.class);
+
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${messaging.local.dir}")
+    private String brokerDir;
+
+    @Value("${messaging.local.retention:P1D}")
+    private Duration retention;
+
+    @Autowired
+    public LocalDirectoryMessagePublisher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(String messageId, String topic, String key, Object payload) {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("messageId", messageId);
+        envelope.put("topic", topic);
+        envelope.put("key", key);
+        envelope.put("publishedAt", LocalDateTime.now().toString());
+        envelope.set("payload", objectMapper.valueToTree(payload));
+
+        String fileName = String.format("%019d-%09d-%s.json", System.currentTimeMillis(), sequence.incrementAndGet() % 1_000_000_000, UUID.randomUUID());
+        try {
+            Path topicDir = Paths.get(brokerDir, topic);
+            Files.createDirectories(topicDir);
+
+            Path tempFile = Files.createTempFile(topicDir, ".publish-", ".tmp");
+            Files.writeString(tempFile, objectMapper.writeValueAsString(envelope), StandardCharsets.UTF_8);
+            Files.move(tempFile, topicDir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Message payload cannot be serialized", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish message to " + topic, e);
+        }
+    }
+
+    // Tüketici retention süresinden uzun kapalı kalırsa bekleyen mesajları da silinir; olaylar outbox'tan yeniden yayınlanabilir.
+    // .failed altındaki dosyalar ve yarıda kalmış geçici dosyalar da aynı süreyle temizlenir
+    @Scheduled(initialDelayString = "${messaging.local.cleanup.initial-delay:PT10M}",
+            fixedDelayString = "${messaging.local.cleanup.interval:PT1H}")
+    public void removeExpired() {
+        Path root = Paths.get(brokerDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(retention));
+        int removed = 0;
+        // <dir>/<topic>/<mesaj> ve <dir>/<topic>/.failed/<mesaj>
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isExpired(file, cutoff) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not clean up messages in {}: {}", root, e.getMessage());
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} expired messages from {}", removed, root);
+        }
+    }
+
+    private boolean isExpired(Path file, FileTime cutoff) throws IOException {
+        try {
+            return Files.isRegularFile(file) && Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+        } catch (NoSuchFileException e) {
+            // Tüketici bu arada işleyip silmiş
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.musdb.photoservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoDeletedMessage {
+    private Long photoId;
+    private Long userId;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,13 @@
+package com.musdb.photoservice.messaging;
+
+// Yayınlayan ve tüketen servislerdeki Topics sabitleri ile aynı olmalıdır
+public final class Topics {
+    public static final String USER_DELETED = "user.deleted";
+
+    public static final String PHOTO_UPLOADED = "photo.uploaded";
+    public static final String PHOTO_UPDATED = "photo.updated";
+    public static final String PHOTO_DELETED = "photo.deleted";
+
+    private Topics() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.musdb.photoservice.messaging;
+
+import com.musdb.photoservice.service.PhotoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Silinen kullanıcının fotoğraflarını toplu siler; dosyalar PhotoPurgeJob ile arka planda bırakılır
+@Component
+public class UserDeletedMessageHandler implements MessageHandler<UserDeletedMessage> {
+    private static final Logger log = LoggerFactory.getLogger(UserDeletedMessageHandler.class);
+
+    private final PhotoService photoService;
+
+    @Autowired
+    public UserDeletedMessageHandler(PhotoService photoService) {
+        this.photoService = photoService;
+    }
+
+    @Override
+    public String getTopic() {
+        return Topics.USER_DELETED;
+    }
+
+    @Override
+    public Class<UserDeletedMessage> getPayloadType() {
+        return UserDeletedMessage.class;
+    }
+
+    @Override
+    public void handle(UserDeletedMessage payload) {
+        int deleted = photoService.deletePhotosByUserId(payload.getUserId());
+        log.info("Deleted {} photos of user {}", deleted, payload.getUserId());
+    }
+}
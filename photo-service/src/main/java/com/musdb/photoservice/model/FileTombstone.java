@@ -0,0 +1,52 @@
+package com.musdb.photoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Silinmesi gereken bir depo dosyası; silme işlemiyle aynı transaction'da yazılır, dosya commit sonrasında
+// FileTombstoneReaper tarafından silinir. Transaction geri alınırsa kayıt da geri alınır ve dosya yerinde kalır.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "file_tombstones", indexes = {
+        @Index(name = "idx_file_tombstones_next_attempt_at", columnList = "next_attempt_at")
+})
+public class FileTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_tombstones_seq")
+    @SequenceGenerator(name = "file_tombstones_seq", sequenceName = "file_tombstones_seq", allocationSize = 50)
+    @Column(name = "tombstone_id")
+    private Long tombstoneId;
+
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public FileTombstone(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
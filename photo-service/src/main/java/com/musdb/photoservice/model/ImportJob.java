@@ -0,0 +1,81 @@
+package com.musdb.photoservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Toplu içe aktarma işi. recordsCommitted, yazılan son partinin kayıtlarıyla aynı transaction'da ilerler;
+// iş yarıda kalırsa kaldığı kayıttan devam eder, aynı kayıt iki kez yazılmaz.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_jobs_seq")
+    @SequenceGenerator(name = "import_jobs_seq", sequenceName = "import_jobs_seq", allocationSize = 1)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "manifest", nullable = false, length = 500)
+    private String manifest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ImportStatus status;
+
+    @Column(name = "records_committed", nullable = false)
+    private long recordsCommitted;
+
+    @Column(name = "imported", nullable = false)
+    private long imported;
+
+    @Column(name = "skipped", nullable = false)
+    private long skipped;
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    // Aşamaların toplam süreleri; prepare paralel çalıştığı için thread'lerin toplamıdır
+    @Column(name = "parse_millis", nullable = false)
+    private long parseMillis;
+
+    @Column(name = "prepare_millis", nullable = false)
+    private long prepareMillis;
+
+    @Column(name = "write_millis", nullable = false)
+    private long writeMillis;
+
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public ImportJob(String manifest) {
+        this.manifest = manifest;
+        this.status = ImportStatus.RUNNING;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
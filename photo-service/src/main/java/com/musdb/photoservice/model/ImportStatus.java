@@ -0,0 +1,8 @@
+package com.musdb.photoservice.model;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -11,10 +11,21 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "photos")
+// PostgreSQL şeması db/migration altındaki Flyway script'lerinden gelir; oradaki index'ler is_delete = false / pending_purge = true
+// ile kısmidir. Buradaki tanımlar H2 test şeması içindir.
+@Table(name = "photos", indexes = {
+        // Keyset sayfalama sırası (created_at DESC, photo_id DESC) ile birebir eşleşir
+        @Index(name = "idx_photos_active_created_at_photo_id", columnList = "created_at DESC, photo_id DESC"),
+        @Index(name = "idx_photos_active_user_id_created_at_photo_id", columnList = "user_id, created_at DESC, photo_id DESC"),
+        @Index(name = "idx_photos_active_content_hash", columnList = "content_hash"),
+        // Toplu silinen fotoğrafların dosyalarını temizleyen iş bu sırayla okur
+        @Index(name = "idx_photos_pending_purge", columnList = "pending_purge, photo_id")
+})
 public class Photo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY, Hibernate'in insert batch'ini kapatır; id'ler sequence'tan 50'lik bloklar halinde alınır
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photos_seq")
+    @SequenceGenerator(name = "photos_seq", sequenceName = "photos_seq", allocationSize = 50)
     @Column(name = "photo_id")
     private Long photoId;
 
@@ -27,6 +38,9 @@ public class Photo {
     @Column(name = "file_path")
     private String filePath;  // Binary data yerine dosya yolu
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     private String description;
 
     @Column(name = "created_at")
@@ -38,6 +52,10 @@ public class Photo {
     @Column(name = "user_id")
     private Long userId;
 
+    // Kullanıcı silinince fotoğraf tek UPDATE ile silinmiş işaretlenir; dosyaları PhotoPurgeJob sonradan bırakır
+    @Column(name = "pending_purge")
+    private Boolean pendingPurge = false;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,17 @@
+package com.musdb.photoservice.model;
+
+public enum PhotoSize {
+    THUMB(200),
+    MEDIUM(800),
+    LARGE(1600);
+
+    private final int maxDimension;
+
+    PhotoSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+}
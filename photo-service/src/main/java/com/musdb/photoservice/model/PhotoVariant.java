@@ -0,0 +1,48 @@
+package com.musdb.photoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "photo_variants", uniqueConstraints = @UniqueConstraint(columnNames = {"photo_id", "size"}))
+public class PhotoVariant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_variants_seq")
+    @SequenceGenerator(name = "photo_variants_seq", sequenceName = "photo_variants_seq", allocationSize = 50)
+    @Column(name = "variant_id")
+    private Long variantId;
+
+    @Column(name = "photo_id")
+    private Long photoId;
+
+    @Enumerated(EnumType.STRING)
+    private PhotoSize size;
+
+    @Column(name = "file_path")
+    private String filePath;  // null ise orijinal zaten bu boyuttan küçük, orijinal kullanılır
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "photo_extension")
+    private String photoExtension;
+
+    private Integer width;
+
+    private Integer height;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,31 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.FileTombstone;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FileTombstoneRepository extends JpaRepository<FileTombstone, Long> {
+    // Lock timeout -2 = SKIP LOCKED; birden fazla instance aynı kayıtları almaz
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t from FileTombstone t where t.nextAttemptAt <= :now order by t.nextAttemptAt")
+    List<FileTombstone> findDueForUpdate(@Param("now") LocalDateTime now, Limit limit);
+
+    long countByNextAttemptAtLessThanEqual(LocalDateTime now);
+
+    long countByAttemptsGreaterThan(int attempts);
+
+    Optional<FileTombstone> findFirstByOrderByCreatedAt();
+}
@@ -0,0 +1,12 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findTop50ByOrderByJobIdDesc();
+}
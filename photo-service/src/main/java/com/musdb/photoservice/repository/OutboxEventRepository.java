@@ -0,0 +1,38 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Lock timeout -2 = SKIP LOCKED; birden fazla instance aynı olayları almaz
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.eventId")
+    List<OutboxEvent> findUnpublishedForUpdate(Limit limit);
+
+    List<OutboxEvent> findByEventIdGreaterThanOrderByEventId(Long eventId, Limit limit);
+
+    long countByPublishedAtIsNull();
+
+    // Cursor'dan sonraki olaylar relay tarafından tekrar yayınlanır
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = null where e.eventId > :eventId and e.publishedAt is not null")
+    int markUnpublishedAfter(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,36 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.PhotoBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, String> {
+    // Aynı içerik eşzamanlı yüklendiğinde unique hatası yerine mevcut satır kullanılır
+    @Modifying
+    @Query(value = "insert into photo_blobs (content_hash, ref_count, content_length, created_at) " +
+            "values (:contentHash, 0, :contentLength, :createdAt) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("contentHash") String contentHash,
+                       @Param("contentLength") long contentLength,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("update PhotoBlob b set b.refCount = b.refCount + 1 where b.contentHash = :contentHash")
+    int incrementRefCount(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("update PhotoBlob b set b.refCount = b.refCount - 1 where b.contentHash = :contentHash")
+    int decrementRefCount(@Param("contentHash") String contentHash);
+
+    boolean existsByContentHashAndRefCountLessThanEqual(String contentHash, Long refCount);
+
+    // Satır kilitlendiği için eşzamanlı bir yükleme referansı artıramaz; silinirse dosya da güvenle silinebilir
+    @Modifying
+    @Query("delete from PhotoBlob b where b.contentHash = :contentHash and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+}
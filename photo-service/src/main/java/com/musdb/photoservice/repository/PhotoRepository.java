@@ -1,19 +1,79 @@
 package com.musdb.photoservice.repository;
 
 import com.musdb.photoservice.model.Photo;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
-    List<Photo> findByUserIdAndIsDeleteFalse(Long userId);
-
     Optional<Photo> findByPhotoIdAndIsDeleteFalse(Long photoId);
 
-    List<Photo> findByPhotoNameContainingAndIsDeleteFalse(String photoName);
+    List<Photo> findByPhotoIdInAndIsDeleteFalse(Collection<Long> photoIds);
+
+    // Keyset sayfalama: (created_at, photo_id) üzerinden, OFFSET kullanmadan
+    Window<Photo> findByIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc(ScrollPosition position, Limit limit);
+
+    Window<Photo> findByUserIdAndIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc(Long userId, ScrollPosition position, Limit limit);
+
+    // pg_trgm: idx_photos_active_photo_name_trgm hem ILIKE hem de <% (word similarity) koşulunu karşılar
+    @Query(value = "select p.* from photos p " +
+            "where p.is_delete = false " +
+            "and (p.photo_name ilike :pattern escape '\\' or :query <% p.photo_name) " +
+            "order by word_similarity(:query, p.photo_name) desc, p.photo_id desc " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Photo> searchByTrigram(@Param("query") String query,
+                                @Param("pattern") String pattern,
+                                @Param("offset") long offset,
+                                @Param("limit") int limit);
+
+    @Query("select p from Photo p " +
+            "where p.isDelete = false and lower(p.photoName) like :pattern escape '\\' " +
+            "order by case when lower(p.photoName) = :query then 0 " +
+            "when lower(p.photoName) like :prefix escape '\\' then 1 else 2 end, p.photoId desc " +
+            "limit :limit offset :offset")
+    List<Photo> searchByLike(@Param("query") String query,
+                             @Param("prefix") String prefix,
+                             @Param("pattern") String pattern,
+                             @Param("offset") long offset,
+                             @Param("limit") int limit);
+
+    // Dışa aktarım için; çağıran transaction içinde tüketip kapatmalıdır
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Photo> streamByIsDeleteFalseOrderByPhotoId();
+
+    // Kullanıcının tüm fotoğrafları tek sorguda silinir; dosyalar pending_purge üzerinden arka planda bırakılır
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Photo p set p.isDelete = true, p.pendingPurge = true " +
+            "where p.userId = :userId and p.isDelete = false")
+    int markDeletedForPurgeByUserId(@Param("userId") Long userId);
+
+    // Lock timeout -2 = SKIP LOCKED; birden fazla instance aynı kayıtları almaz
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from Photo p where p.pendingPurge = true order by p.photoId")
+    List<Photo> findPendingPurgeForUpdate(Limit limit);
+
+    long countByPendingPurgeTrue();
 
-    List<Photo> findAllByIsDeleteFalse();
+    // Toplu içe aktarmada aynı kullanıcıya aynı içeriğin tekrar eklenmesini önlemek için
+    List<Photo> findByContentHashInAndIsDeleteFalse(Collection<String> contentHashes);
 }
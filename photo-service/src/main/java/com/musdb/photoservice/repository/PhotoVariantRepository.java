@@ -0,0 +1,16 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.model.PhotoVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PhotoVariantRepository extends JpaRepository<PhotoVariant, Long> {
+    Optional<PhotoVariant> findByPhotoIdAndSize(Long photoId, PhotoSize size);
+
+    List<PhotoVariant> findByPhotoId(Long photoId);
+}
@@ -0,0 +1,46 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    // Aynı oturumu tamamlama ve iptal etme istekleri sırayla işlenir
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UploadSession s where s.uploadId = :uploadId")
+    Optional<UploadSession> findForUpdate(@Param("uploadId") String uploadId);
+
+    // Açık persistence context'teki önbelleğe takılmadan güncel değeri okur
+    @Query("select s.receivedBytes from UploadSession s where s.uploadId = :uploadId")
+    Optional<Long> findReceivedBytes(@Param("uploadId") String uploadId);
+
+    // Parça yazılırken offset değiştiyse (oturum tamamlandı, iptal edildi) 0 döner
+    @Transactional
+    @Modifying
+    @Query("update UploadSession s set s.receivedBytes = :receivedBytes, s.updatedAt = :updatedAt " +
+            "where s.uploadId = :uploadId and s.receivedBytes = :expectedBytes")
+    int advanceReceivedBytes(@Param("uploadId") String uploadId,
+                             @Param("expectedBytes") long expectedBytes,
+                             @Param("receivedBytes") long receivedBytes,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    List<UploadSession> findByUpdatedAtBeforeOrderByUpdatedAt(LocalDateTime cutoff, Limit limit);
+
+    // Arada yeni parça aldıysa oturum silinmez
+    @Transactional
+    @Modifying
+    @Query("delete from UploadSession s where s.uploadId = :uploadId and s.updatedAt < :cutoff")
+    int deleteIfIdle(@Param("uploadId") String uploadId, @Param("cutoff") LocalDateTime cutoff);
+}
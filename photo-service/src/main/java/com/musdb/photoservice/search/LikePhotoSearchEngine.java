@@ -0,0 +1,33 @@
+package com.musdb.photoservice.search;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+// Trigram desteği olmayan veritabanları (testlerdeki H2) için; tam eşleşme, önek, içerme sırasıyla sıralar
+@Component
+@ConditionalOnProperty(prefix = "photo.search", name = "engine", havingValue = "like")
+public class LikePhotoSearchEngine implements PhotoSearchEngine {
+    private final PhotoRepository photoRepository;
+
+    @Autowired
+    public LikePhotoSearchEngine(PhotoRepository photoRepository) {
+        this.photoRepository = photoRepository;
+    }
+
+    @Override
+    public List<Photo> search(String query, long offset, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        return photoRepository.searchByLike(
+                normalized,
+                SearchPatterns.startsWith(normalized),
+                SearchPatterns.contains(normalized),
+                offset,
+                limit);
+    }
+}
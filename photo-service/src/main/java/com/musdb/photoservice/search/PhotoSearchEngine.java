@@ -0,0 +1,10 @@
+package com.musdb.photoservice.search;
+
+import com.musdb.photoservice.model.Photo;
+
+import java.util.List;
+
+// Sonuçlar alaka düzeyine göre sıralı döner; photo.search.engine ile seçilir (trigram | like)
+public interface PhotoSearchEngine {
+    List<Photo> search(String query, long offset, int limit);
+}
@@ -0,0 +1,19 @@
+package com.musdb.photoservice.search;
+
+// Kullanıcının yazdığı % ve _ karakterleri joker olarak değil, harf olarak aranır
+final class SearchPatterns {
+    private SearchPatterns() {
+    }
+
+    static String escape(String query) {
+        return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    static String startsWith(String query) {
+        return escape(query) + "%";
+    }
+
+    static String contains(String query) {
+        return "%" + escape(query) + "%";
+    }
+}
@@ -0,0 +1,26 @@
+package com.musdb.photoservice.search;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// PostgreSQL pg_trgm: alt dize ve yazım hatalı aramalar photo_name üzerindeki GIN trigram index'ini kullanır
+@Component
+@ConditionalOnProperty(prefix = "photo.search", name = "engine", havingValue = "trigram", matchIfMissing = true)
+public class TrigramPhotoSearchEngine implements PhotoSearchEngine {
+    private final PhotoRepository photoRepository;
+
+    @Autowired
+    public TrigramPhotoSearchEngine(PhotoRepository photoRepository) {
+        this.photoRepository = photoRepository;
+    }
+
+    @Override
+    public List<Photo> search(String query, long offset, int limit) {
+        return photoRepository.searchByTrigram(query, SearchPatterns.contains(query), offset, limit);
+    }
+}
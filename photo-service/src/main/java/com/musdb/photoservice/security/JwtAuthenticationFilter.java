@@ -1,5 +1,6 @@
 package com.musdb.photoservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,10 +37,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            if (jwtService.validateToken(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtService.extractUsername(jwt);
-                Long userId = jwtService.extractUserId(jwt);
-                String userType = jwtService.extractUserType(jwt);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Token tek sefer çözülür; imza ve süre kontrolü parser tarafından yapılır
+                Claims claims = jwtService.parseClaims(jwt);
+                String username = claims.getSubject();
+                Long userId = claims.get("userId", Long.class);
+                String userType = claims.get("userType", String.class);
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         username,
@@ -0,0 +1,84 @@
+package com.musdb.photoservice.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Doğrulanmış token'ların claim'lerini token süresi dolana kadar tutan, boyutu sınırlı LRU önbellek.
+// Anahtar token'ın SHA-256 özetidir; token'ın kendisi bellekte tutulmaz.
+// Her istekte kullanıldığı için monitor yerine ReentrantLock kullanılır, kilit bekleyen virtual thread carrier'ı bloke etmez.
+@Component
+public class JwtClaimsCache {
+    private final int maxEntries;
+    private final LinkedHashMap<String, CachedClaims> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public JwtClaimsCache(@Value("${jwt.claims-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > JwtClaimsCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        String key = hash(token);
+        lock.lock();
+        try {
+            CachedClaims cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+
+            // Süresi dolan token bir daha önbellekten dönmez, parser'a gidip ExpiredJwtException alır
+            if (cached.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+
+            return cached.claims;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String token, Claims claims) {
+        if (maxEntries <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+
+        String key = hash(token);
+        lock.lock();
+        try {
+            entries.put(key, new CachedClaims(claims, claims.getExpiration().getTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.CursorPageDto;
+import com.musdb.photoservice.dto.OutboxEventDto;
+
+public interface OutboxService {
+    void append(String topic, Object key, Object payload);
+
+    CursorPageDto<OutboxEventDto> getEvents(String cursor, Integer limit);
+
+    int replayAfter(Long eventId);
+}
@@ -0,0 +1,18 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.ImportJobDto;
+import com.musdb.photoservice.dto.ImportRequestDto;
+
+import java.util.List;
+
+public interface PhotoImportService {
+    ImportJobDto startImport(ImportRequestDto importRequest);
+
+    ImportJobDto resumeImport(Long jobId);
+
+    ImportJobDto cancelImport(Long jobId);
+
+    ImportJobDto getImport(Long jobId);
+
+    List<ImportJobDto> getImports();
+}
@@ -1,25 +1,40 @@
 package com.musdb.photoservice.service;
 
+import com.musdb.photoservice.dto.BatchLookupResultDto;
+import com.musdb.photoservice.dto.CursorPageDto;
+import com.musdb.photoservice.dto.PhotoContentDto;
 import com.musdb.photoservice.dto.PhotoDto;
 import com.musdb.photoservice.dto.PhotoUploadDto;
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.storage.ImageFormat;
+import com.musdb.photoservice.storage.StoredPhoto;
 
+import java.io.OutputStream;
 import java.util.List;
 
 //TODO: Query ile Command servisleri birbirinden ayrılmalıdır
 public interface PhotoService {
     PhotoDto uploadPhoto(PhotoUploadDto photoUploadDto);
 
+    PhotoDto createPhoto(PhotoUploadDto photoUploadDto, StoredPhoto storedPhoto, ImageFormat format);
+
     PhotoDto getPhotoById(Long photoId);
 
-    byte[] getPhotoData(Long photoId);
+    BatchLookupResultDto<PhotoDto> getPhotosByIds(List<Long> photoIds);
+
+    PhotoContentDto getPhotoContent(Long photoId, PhotoSize size);
 
-    List<PhotoDto> getAllPhotos();
+    CursorPageDto<PhotoDto> getAllPhotos(String cursor, Integer limit);
 
-    List<PhotoDto> getPhotosByUserId(Long userId);
+    CursorPageDto<PhotoDto> getPhotosByUserId(Long userId, String cursor, Integer limit);
 
-    List<PhotoDto> searchPhotosByName(String name);
+    CursorPageDto<PhotoDto> searchPhotosByName(String name, String cursor, Integer limit);
+
+    void exportPhotos(OutputStream outputStream);
 
     PhotoDto updatePhoto(Long photoId, PhotoDto photoDto);
 
     void deletePhoto(Long photoId);
+
+    int deletePhotosByUserId(Long userId);
 }
@@ -0,0 +1,13 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.model.PhotoVariant;
+
+public interface PhotoVariantService {
+    void generateVariants(Long photoId);
+
+    PhotoVariant getOrCreateVariant(Photo photo, PhotoSize size);
+
+    void deleteVariants(Long photoId);
+}
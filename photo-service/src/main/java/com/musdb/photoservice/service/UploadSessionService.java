@@ -0,0 +1,21 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.PhotoDto;
+import com.musdb.photoservice.dto.UploadSessionDto;
+import com.musdb.photoservice.dto.UploadSessionRequestDto;
+
+import java.io.InputStream;
+
+public interface UploadSessionService {
+    UploadSessionDto createSession(UploadSessionRequestDto uploadSessionRequestDto);
+
+    UploadSessionDto getSession(String uploadId);
+
+    UploadSessionDto appendChunk(String uploadId, long offset, String checksum, InputStream content);
+
+    PhotoDto completeSession(String uploadId);
+
+    void abortSession(String uploadId);
+
+    int removeExpiredSessions();
+}
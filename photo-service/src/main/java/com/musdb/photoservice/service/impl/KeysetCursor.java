@@ -0,0 +1,45 @@
+package com.musdb.photoservice.service.impl;
+
+import com.musdb.photoservice.exception.InvalidRequestException;
+import com.musdb.photoservice.model.Photo;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// (created_at, photo_id) anahtarını istemciye opak bir token olarak taşır
+final class KeysetCursor {
+    private static final char SEPARATOR = '|';
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Photo last) {
+        String raw = last.getCreatedAt().toString() + SEPARATOR + last.getPhotoId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put("photoId", Long.valueOf(raw.substring(separator + 1)));
+
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.musdb.photoservice.service.impl;
+
+import com.musdb.photoservice.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Alaka sırasına göre dönen arama sonuçlarında sabit bir anahtar olmadığı için sayfa konumu taşınır
+final class OffsetCursor {
+    private OffsetCursor() {
+    }
+
+    static String encode(long offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+
+        try {
+            long offset = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
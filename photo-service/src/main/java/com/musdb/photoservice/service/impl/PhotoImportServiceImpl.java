@@ -0,0 +1,451 @@
+package com.musdb.photoservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musdb.photoservice.dto.ImportJobDto;
+import com.musdb.photoservice.dto.ImportRequestDto;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import com.musdb.photoservice.exception.ResourceNotFoundException;
+import com.musdb.photoservice.importer.ImportBatch;
+import com.musdb.photoservice.importer.ImportPipeline;
+import com.musdb.photoservice.importer.ManifestReader;
+import com.musdb.photoservice.importer.ManifestRecord;
+import com.musdb.photoservice.model.ImportJob;
+import com.musdb.photoservice.model.ImportStatus;
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.ImportJobRepository;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.service.PhotoImportService;
+import com.musdb.photoservice.storage.ImageFormat;
+import com.musdb.photoservice.storage.PhotoStorage;
+import com.musdb.photoservice.storage.StoredPhoto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Manifestteki fotoğraflar parse -> dosya kopyalama ve özet (photoImportCopyExecutor) -> toplu insert aşamalarından geçer.
+// Dosyalar import dizininden yükleme diskine kopyalanırken özetlenir; yazma aşaması yalnızca yerine taşır.
+// İçe aktarılan fotoğraflar için outbox olayı yazılmaz ve küçük boyutlar ilk istekte üretilir.
+@Service
+public class PhotoImportServiceImpl implements PhotoImportService {
+    private static final Logger log = LoggerFactory.getLogger(PhotoImportServiceImpl.class);
+
+    private static final String TEMP_DIR = ".tmp";
+
+    private final ImportJobRepository importJobRepository;
+    private final PhotoRepository photoRepository;
+    private final PhotoStorage photoStorage;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor photoImportCopyExecutor;
+    private final ThreadPoolTaskExecutor photoImportExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock launchLock = new ReentrantLock();
+    private final AtomicLong activeJobId = new AtomicLong();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+
+    @Value("${photo.import.dir:${user.home}/musdb/imports}")
+    private String importDir;
+
+    @Value("${photo.upload.dir}")
+    private String uploadDir;
+
+    @Value("${photo.import.batch-size:200}")
+    private int batchSize;
+
+    @Value("${photo.import.max-pending-batches:8}")
+    private int maxPendingBatches;
+
+    @Autowired
+    public PhotoImportServiceImpl(ImportJobRepository importJobRepository,
+                                  PhotoRepository photoRepository,
+                                  PhotoStorage photoStorage,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("photoImportCopyExecutor") ThreadPoolTaskExecutor photoImportCopyExecutor,
+                                  @Qualifier("photoImportExecutor") ThreadPoolTaskExecutor photoImportExecutor,
+                                  PlatformTransactionManager transactionManager) {
+        this.importJobRepository = importJobRepository;
+        this.photoRepository = photoRepository;
+        this.photoStorage = photoStorage;
+        this.objectMapper = objectMapper;
+        this.photoImportCopyExecutor = photoImportCopyExecutor;
+        this.photoImportExecutor = photoImportExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportJobDto startImport(ImportRequestDto importRequest) {
+        Path manifest = resolveManifest(importRequest.getManifest());
+
+        launchLock.lock();
+        try {
+            ensureIdle();
+            ImportJob job = importJobRepository.save(new ImportJob(importRequest.getManifest()));
+            launch(job, manifest);
+            return mapToDto(job);
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    // Yarıda kalan, iptal edilen ya da hata alan iş son yazılan kayıttan devam eder
+    @Override
+    public ImportJobDto resumeImport(Long jobId) {
+        launchLock.lock();
+        try {
+            ImportJob job = findJob(jobId);
+            if (job.getStatus() == ImportStatus.COMPLETED) {
+                throw new InvalidRequestException("Import job is already completed");
+            }
+            ensureIdle();
+
+            Path manifest = resolveManifest(job.getManifest());
+            job.setStatus(ImportStatus.RUNNING);
+            job.setLastError(null);
+            job.setFinishedAt(null);
+            job = importJobRepository.save(job);
+            launch(job, manifest);
+            return mapToDto(job);
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    // Okuma durur, kuyruktaki partiler yazılır; iş bunun ardından CANCELLED olur
+    @Override
+    public ImportJobDto cancelImport(Long jobId) {
+        launchLock.lock();
+        try {
+            ImportJob job = findJob(jobId);
+            if (activeJobId.get() == jobId) {
+                cancelRequested.set(true);
+                return mapToDto(job);
+            }
+            if (job.getStatus() != ImportStatus.RUNNING) {
+                throw new InvalidRequestException("Import job is not running");
+            }
+
+            // Servis yeniden başladığı için yarıda kalmış iş
+            job.setStatus(ImportStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            return mapToDto(importJobRepository.save(job));
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    @Override
+    public ImportJobDto getImport(Long jobId) {
+        return mapToDto(findJob(jobId));
+    }
+
+    @Override
+    public List<ImportJobDto> getImports() {
+        return importJobRepository.findTop50ByOrderByJobIdDesc().stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    private void launch(ImportJob job, Path manifest) {
+        cancelRequested.set(false);
+        activeJobId.set(job.getJobId());
+        try {
+            photoImportExecutor.execute(() -> run(job, manifest));
+        } catch (RuntimeException e) {
+            activeJobId.set(0);
+            throw e;
+        }
+    }
+
+    private void run(ImportJob base, Path manifest) {
+        // Kopyalama havuzundaki tüm thread'lerin meşgul kalması için en az havuz boyutu kadar parti bekletilir
+        int pendingBatches = Math.max(maxPendingBatches, photoImportCopyExecutor.getMaxPoolSize());
+        ImportPipeline<List<PreparedPhoto>> pipeline = new ImportPipeline<>(batchSize, pendingBatches, photoImportCopyExecutor, photoImportExecutor);
+        long startedAt = System.nanoTime();
+
+        try {
+            ImportStatus status = ImportStatus.COMPLETED;
+            String error = null;
+            try (ManifestReader reader = ManifestReader.open(manifest, objectMapper)) {
+                pipeline.run(reader, base.getRecordsCommitted(), this::prepare,
+                        batch -> write(base, batch, pipeline, startedAt),
+                        this::deleteTempFiles,
+                        cancelRequested::get);
+                if (cancelRequested.get()) {
+                    status = ImportStatus.CANCELLED;
+                }
+            } catch (Exception e) {
+                log.error("Photo import {} failed", base.getJobId(), e);
+                status = ImportStatus.FAILED;
+                error = e.getMessage();
+            }
+
+            finish(base, status, error, pipeline, startedAt);
+        } catch (RuntimeException e) {
+            log.error("Photo import {} could not be finalized", base.getJobId(), e);
+        } finally {
+            activeJobId.set(0);
+        }
+    }
+
+    private List<PreparedPhoto> prepare(List<ManifestRecord> records) {
+        List<PreparedPhoto> prepared = new ArrayList<>(records.size());
+        for (ManifestRecord record : records) {
+            try {
+                prepared.add(preparePhoto(record));
+            } catch (IllegalArgumentException | IOException e) {
+                log.warn("Photo import record {} rejected: {}", record.getNumber(), e.getMessage());
+                prepared.add(new PreparedPhoto(null, null, 0, null));
+            }
+        }
+        return prepared;
+    }
+
+    private PreparedPhoto preparePhoto(ManifestRecord record) throws IOException {
+        if (record.getError() != null) {
+            throw new IllegalArgumentException(record.getError());
+        }
+
+        Photo photo = new Photo();
+        photo.setPhotoName(required(record, "photoName"));
+        photo.setDescription(record.get("description"));
+        photo.setUserId(parseUserId(required(record, "userId")));
+        photo.setIsDelete(false);
+        Path source = resolveSource(required(record, "file"));
+
+        Path tempDir = Paths.get(uploadDir, TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path tempFile = Files.createTempFile(tempDir, "import-", ".part");
+        try (BufferedInputStream content = new BufferedInputStream(Files.newInputStream(source))) {
+            content.mark(ImageFormat.HEADER_LENGTH);
+            ImageFormat format = ImageFormat.detect(content.readNBytes(ImageFormat.HEADER_LENGTH));
+            content.reset();
+            if (format == null) {
+                throw new IllegalArgumentException("Unsupported image format: " + source.getFileName());
+            }
+            photo.setPhotoExtension(format.getExtension());
+
+            MessageDigest digest = newDigest();
+            long contentLength;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                contentLength = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new PreparedPhoto(tempFile, HexFormat.of().formatHex(digest.digest()), contentLength, photo);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    // Parti, iş sayaçları ve checkpoint aynı transaction'da yazılır
+    private void write(ImportJob base, ImportBatch<List<PreparedPhoto>> batch,
+                       ImportPipeline<?> pipeline, long startedAt) {
+        List<PreparedPhoto> valid = batch.getPrepared().stream()
+                .filter(preparedPhoto -> preparedPhoto.tempFile() != null)
+                .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> existing = valid.isEmpty() ? new HashSet<>() : photoRepository
+                        .findByContentHashInAndIsDeleteFalse(valid.stream().map(PreparedPhoto::contentHash).toList())
+                        .stream()
+                        .map(photo -> photo.getUserId() + ":" + photo.getContentHash())
+                        .collect(Collectors.toCollection(HashSet::new));
+
+                List<Photo> photos = new ArrayList<>(valid.size());
+                for (PreparedPhoto preparedPhoto : valid) {
+                    // Kullanıcıda aynı içerik zaten varsa ya da dosyada daha önce geçtiyse atlanır
+                    if (!existing.add(preparedPhoto.photo().getUserId() + ":" + preparedPhoto.contentHash())) {
+                        deleteQuietly(preparedPhoto.tempFile());
+                        continue;
+                    }
+
+                    StoredPhoto storedPhoto = photoStorage.store(preparedPhoto.tempFile(), preparedPhoto.contentHash(), preparedPhoto.contentLength());
+                    Photo photo = preparedPhoto.photo();
+                    photo.setFilePath(storedPhoto.getStorageKey());
+                    photo.setContentHash(storedPhoto.getContentHash());
+                    photos.add(photo);
+                }
+
+                photoRepository.saveAll(photos);
+
+                ImportJob job = findJob(base.getJobId());
+                job.setRecordsCommitted(batch.getLastRecord());
+                job.setImported(job.getImported() + photos.size());
+                job.setSkipped(job.getSkipped() + valid.size() - photos.size());
+                job.setFailed(job.getFailed() + batch.getPrepared().size() - valid.size());
+                applyTimings(job, base, pipeline, startedAt);
+                importJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            // Yerine taşınmamış geçici dosyalar silinir
+            deleteTempFiles(batch.getPrepared());
+            throw e;
+        }
+    }
+
+    private void finish(ImportJob base, ImportStatus status, String error, ImportPipeline<?> pipeline, long startedAt) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            ImportJob job = findJob(base.getJobId());
+            job.setStatus(status);
+            job.setLastError(error == null ? null : truncate(error));
+            job.setFinishedAt(LocalDateTime.now());
+            applyTimings(job, base, pipeline, startedAt);
+            importJobRepository.save(job);
+        });
+
+        log.info("Photo import {} finished with status {}", base.getJobId(), status);
+    }
+
+    // Devam ettirilen işlerde süreler önceki çalışmaların üstüne eklenir
+    private void applyTimings(ImportJob job, ImportJob base, ImportPipeline<?> pipeline, long startedAt) {
+        job.setParseMillis(base.getParseMillis() + pipeline.getParseMillis());
+        job.setPrepareMillis(base.getPrepareMillis() + pipeline.getPrepareMillis());
+        job.setWriteMillis(base.getWriteMillis() + pipeline.getWriteMillis());
+        job.setElapsedMillis(base.getElapsedMillis() + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private void deleteTempFiles(List<PreparedPhoto> prepared) {
+        for (PreparedPhoto preparedPhoto : prepared) {
+            deleteQuietly(preparedPhoto.tempFile());
+        }
+    }
+
+    private void ensureIdle() {
+        if (activeJobId.get() != 0) {
+            throw new InvalidRequestException("Import job " + activeJobId.get() + " is already running");
+        }
+    }
+
+    private Path resolveManifest(String manifest) {
+        Path path = resolveInImportDir(manifest);
+        if (path == null) {
+            throw new InvalidRequestException("Manifest must be inside the import directory");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new InvalidRequestException("Manifest not found: " + manifest);
+        }
+        if (!ManifestReader.supports(path)) {
+            throw new InvalidRequestException("Manifest must be a .csv, .ndjson or .jsonl file");
+        }
+        return path;
+    }
+
+    private Path resolveSource(String file) {
+        Path path = resolveInImportDir(file);
+        if (path == null) {
+            throw new IllegalArgumentException("File must be inside the import directory: " + file);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("File not found: " + file);
+        }
+        return path;
+    }
+
+    // Import dizini dışına çıkan yollar için null döner
+    private Path resolveInImportDir(String name) {
+        Path root = Paths.get(importDir).toAbsolutePath().normalize();
+        Path path = root.resolve(name).normalize();
+        return path.startsWith(root) ? path : null;
+    }
+
+    private ImportJob findJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    private String required(ManifestRecord record, String field) {
+        String value = record.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private Long parseUserId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid userId: " + value);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private ImportJobDto mapToDto(ImportJob job) {
+        long processed = job.getImported() + job.getSkipped() + job.getFailed();
+        double recordsPerSecond = job.getElapsedMillis() > 0 ? processed * 1000.0 / job.getElapsedMillis() : 0;
+
+        return ImportJobDto.builder()
+                .jobId(job.getJobId())
+                .manifest(job.getManifest())
+                .status(job.getStatus())
+                .recordsCommitted(job.getRecordsCommitted())
+                .imported(job.getImported())
+                .skipped(job.getSkipped())
+                .failed(job.getFailed())
+                .parseMillis(job.getParseMillis())
+                .prepareMillis(job.getPrepareMillis())
+                .writeMillis(job.getWriteMillis())
+                .elapsedMillis(job.getElapsedMillis())
+                .recordsPerSecond(recordsPerSecond)
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    // tempFile null ise kayıt geçersizdir ve failed olarak sayılır
+    private record PreparedPhoto(Path tempFile, String contentHash, long contentLength, Photo photo) {
+    }
+}
@@ -1,85 +1,167 @@
 package com.musdb.photoservice.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musdb.photoservice.config.CacheConfig;
+import com.musdb.photoservice.dto.BatchLookupResultDto;
+import com.musdb.photoservice.dto.CursorPageDto;
+import com.musdb.photoservice.dto.PhotoContentDto;
 import com.musdb.photoservice.dto.PhotoDto;
 import com.musdb.photoservice.dto.PhotoUploadDto;
 import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import com.musdb.photoservice.event.PhotoUploadedEvent;
 import com.musdb.photoservice.exception.ResourceNotFoundException;
+import com.musdb.photoservice.messaging.PhotoDeletedMessage;
+import com.musdb.photoservice.messaging.Topics;
 import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.model.PhotoVariant;
 import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.search.PhotoSearchEngine;
+import com.musdb.photoservice.service.OutboxService;
 import com.musdb.photoservice.service.PhotoService;
-import org.apache.commons.io.FilenameUtils;
+import com.musdb.photoservice.service.PhotoVariantService;
+import com.musdb.photoservice.storage.ImageFormat;
+import com.musdb.photoservice.storage.PhotoStorage;
+import com.musdb.photoservice.storage.SpooledPhoto;
+import com.musdb.photoservice.storage.StoredPhoto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.File;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PhotoServiceImpl implements PhotoService {
+    private static final Logger log = LoggerFactory.getLogger(PhotoServiceImpl.class);
 
     private final PhotoRepository photoRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoVariantService photoVariantService;
+    private final PhotoSearchEngine photoSearchEngine;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${photo.upload.dir}")
-    private String uploadDir;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${photo.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${photo.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${photo.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     @Autowired
-    public PhotoServiceImpl(PhotoRepository photoRepository) {
+    public PhotoServiceImpl(PhotoRepository photoRepository,
+                            PhotoStorage photoStorage,
+                            PhotoVariantService photoVariantService,
+                            PhotoSearchEngine photoSearchEngine,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            ObjectMapper objectMapper,
+                            OutboxService outboxService,
+                            PlatformTransactionManager transactionManager) {
         this.photoRepository = photoRepository;
+        this.photoStorage = photoStorage;
+        this.photoVariantService = photoVariantService;
+        this.photoSearchEngine = photoSearchEngine;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // İstemci akışı transaction dışında okunur; veritabanı bağlantısı yalnızca referans ve kayıt için, dosya yazıldıktan sonra alınır
     @Override
-    @Transactional
     public PhotoDto uploadPhoto(PhotoUploadDto photoUploadDto) {
+        ImageFormat format;
+        BufferedInputStream content;
         try {
-            // Yükleme dizininin varlığını kontrol et, yoksa oluştur
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Gelen dosyadan bilgileri çıkar
-            MultipartFile file = photoUploadDto.getFile();
-            String originalFilename = file.getOriginalFilename();
-            String extension = FilenameUtils.getExtension(originalFilename);
-
-            // Benzersiz bir dosya adı oluştur
-            String uniqueFilename = UUID.randomUUID().toString() + "." + extension;
-            Path targetLocation = uploadPath.resolve(uniqueFilename);
+            // Biçim ilk byte'lardan tanınır; akış geri sarılıp tamamı depoya yazılır, içerik belleğe alınmaz
+            content = new BufferedInputStream(photoUploadDto.getContent());
+            content.mark(ImageFormat.HEADER_LENGTH);
+            format = ImageFormat.detect(content.readNBytes(ImageFormat.HEADER_LENGTH));
+            content.reset();
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+        }
+        if (format == null) {
+            throw new InvalidRequestException("Unsupported image format, expected JPEG, PNG, GIF or WebP");
+        }
 
-            // Dosyayı diske kopyala
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Dosyayı içerik özetine göre depoya yaz, aynı içerik daha önce yüklendiyse tekrar yazılmaz
+        SpooledPhoto spooled = photoStorage.spool(content);
+        try {
+            return transactionTemplate.execute(status -> createPhoto(photoUploadDto,
+                    photoStorage.store(spooled.file(), spooled.contentHash(), spooled.contentLength()), format));
+        } finally {
+            // Depoya taşındıysa dosya zaten yoktur
+            try {
+                Files.deleteIfExists(spooled.file());
+            } catch (IOException e) {
+                log.warn("Could not delete file {}: {}", spooled.file(), e.getMessage());
+            }
+        }
+    }
 
-            // Photo nesnesini oluştur
-            Photo photo = new Photo();
-            photo.setPhotoName(photoUploadDto.getPhotoName());
-            photo.setDescription(photoUploadDto.getDescription());
-            photo.setPhotoExtension(extension);
-            photo.setFilePath(uniqueFilename); // Dosya adını veritabanına kaydet
-            photo.setUserId(photoUploadDto.getUserId());
-            photo.setIsDelete(false);
+    // Depoya yazılmış içerik için fotoğraf kaydını oluşturur; parça parça yüklemeler de buradan kaydedilir
+    @Override
+    @Transactional
+    public PhotoDto createPhoto(PhotoUploadDto photoUploadDto, StoredPhoto storedPhoto, ImageFormat format) {
+        // Photo nesnesini oluştur
+        Photo photo = new Photo();
+        photo.setPhotoName(photoUploadDto.getPhotoName());
+        photo.setDescription(photoUploadDto.getDescription());
+        photo.setPhotoExtension(format.getExtension());
+        photo.setFilePath(storedPhoto.getStorageKey()); // Depo anahtarını veritabanına kaydet
+        photo.setContentHash(storedPhoto.getContentHash());
+        photo.setUserId(photoUploadDto.getUserId());
+        photo.setIsDelete(false);
 
-            // Veritabanına kaydet
-            Photo savedPhoto = photoRepository.save(photo);
+        // Veritabanına kaydet
+        Photo savedPhoto = photoRepository.save(photo);
 
-            return mapToDto(savedPhoto);
+        // Küçük boyutlar commit sonrası arka planda üretilir
+        applicationEventPublisher.publishEvent(new PhotoUploadedEvent(savedPhoto.getPhotoId()));
 
-        } catch (IOException e) {
-            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
-        }
+        PhotoDto savedPhotoDto = mapToDto(savedPhoto);
+        outboxService.append(Topics.PHOTO_UPLOADED, savedPhoto.getPhotoId(), savedPhotoDto);
+        return savedPhotoDto;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PHOTO_METADATA, key = "#photoId", sync = true)
     public PhotoDto getPhotoById(Long photoId) {
         Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Photo not found with id: " + photoId));
@@ -87,25 +169,66 @@ public class PhotoServiceImpl implements PhotoService {
         return mapToDto(photo);
     }
 
+    // Tek IN sorgusu; sonuç istek sırasına göre dizilir
     @Override
     @Transactional(readOnly = true)
-    public byte[] getPhotoData(Long photoId) {
-        try {
-            Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Photo not found with id: " + photoId));
+    public BatchLookupResultDto<PhotoDto> getPhotosByIds(List<Long> photoIds) {
+        if (photoIds == null || photoIds.isEmpty()) {
+            throw new InvalidRequestException("At least one id is required");
+        }
+
+        List<Long> ids = photoIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " ids are allowed per request");
+        }
 
-            // Dosya yolunu veritabanından al
-            String filePath = photo.getFilePath();
+        Map<Long, Photo> photos = new HashMap<>();
+        photoRepository.findByPhotoIdInAndIsDeleteFalse(ids).forEach(photo -> photos.put(photo.getPhotoId(), photo));
 
-            // Dosya yolunu oluştur
-            Path path = Paths.get(uploadDir, filePath);
+        return BatchLookupResultDto.<PhotoDto>builder()
+                .items(ids.stream().filter(photos::containsKey).map(id -> mapToDto(photos.get(id))).collect(Collectors.toList()))
+                .missingIds(ids.stream().filter(id -> !photos.containsKey(id)).collect(Collectors.toList()))
+                .build();
+    }
+
+    // Eksik boyut üretimi kendi transaction'ında yapıldığı için bu metot transaction açmaz
+    @Override
+    public PhotoContentDto getPhotoContent(Long photoId, PhotoSize size) {
+        Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Photo not found with id: " + photoId));
 
-            // Dosya varsa içeriğini oku ve byte[] olarak döndür
-            if (Files.exists(path)) {
-                return Files.readAllBytes(path);
-            } else {
-                throw new FileStorageException("File not found: " + filePath);
+        String storageKey = photo.getFilePath();
+        String contentHash = photo.getContentHash();
+        String extension = photo.getPhotoExtension();
+
+        if (size != null) {
+            PhotoVariant variant = photoVariantService.getOrCreateVariant(photo, size);
+            if (variant != null && variant.getFilePath() != null) {
+                storageKey = variant.getFilePath();
+                contentHash = variant.getContentHash();
+                extension = variant.getPhotoExtension();
             }
+        }
+
+        // Dosya yolunu depodan çöz
+        Path path = photoStorage.resolve(storageKey);
+
+        // İçerik okunmuyor, sadece boyut ve değişiklik zamanı alınıyor
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+            return PhotoContentDto.builder()
+                    .photoId(photo.getPhotoId())
+                    .photoName(photo.getPhotoName())
+                    .photoExtension(extension)
+                    .storageKey(storageKey)
+                    .filePath(path)
+                    .contentHash(contentHash)
+                    .contentLength(attributes.size())
+                    .lastModified(attributes.lastModifiedTime().toMillis())
+                    .build();
+        } catch (NoSuchFileException e) {
+            throw new FileStorageException("File not found: " + storageKey);
         } catch (IOException e) {
             throw new FileStorageException("Could not read file: " + e.getMessage(), e);
         }
@@ -113,30 +236,58 @@ public class PhotoServiceImpl implements PhotoService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<PhotoDto> getAllPhotos() {
-        return photoRepository.findAllByIsDeleteFalse().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<PhotoDto> getAllPhotos(String cursor, Integer limit) {
+        return toPage(photoRepository.findByIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc(
+                KeysetCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PhotoDto> getPhotosByUserId(Long userId, String cursor, Integer limit) {
+        return toPage(photoRepository.findByUserIdAndIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc(
+                userId, KeysetCursor.decode(cursor), resolveLimit(limit)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<PhotoDto> getPhotosByUserId(Long userId) {
-        return photoRepository.findByUserIdAndIsDeleteFalse(userId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<PhotoDto> searchPhotosByName(String name, String cursor, Integer limit) {
+        long offset = OffsetCursor.decode(cursor);
+        int pageSize = resolveLimit(limit).max();
+
+        // Bir fazla satır istenir, sonraki sayfanın varlığı ek sorgu olmadan anlaşılır
+        List<Photo> photos = photoSearchEngine.search(name.trim(), offset, pageSize + 1);
+        boolean hasNext = photos.size() > pageSize;
+        if (hasNext) {
+            photos = photos.subList(0, pageSize);
+        }
+
+        return CursorPageDto.<PhotoDto>builder()
+                .items(photos.stream().map(this::mapToDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? OffsetCursor.encode(offset + pageSize) : null)
+                .build();
     }
 
+    // Satırlar tek tek yazılıp persistence context'ten çıkarılır, bellek kullanımı satır sayısından bağımsızdır
     @Override
     @Transactional(readOnly = true)
-    public List<PhotoDto> searchPhotosByName(String name) {
-        return photoRepository.findByPhotoNameContainingAndIsDeleteFalse(name).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public void exportPhotos(OutputStream outputStream) {
+        try (Stream<Photo> photos = photoRepository.streamByIsDeleteFalseOrderByPhotoId()) {
+            Iterator<Photo> iterator = photos.iterator();
+            while (iterator.hasNext()) {
+                Photo photo = iterator.next();
+                outputStream.write(objectMapper.writeValueAsBytes(mapToDto(photo)));
+                outputStream.write('\n');
+                entityManager.detach(photo);
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new FileStorageException("Could not export photos: " + e.getMessage(), e);
+        }
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PHOTO_METADATA, key = "#photoId")
     public PhotoDto updatePhoto(Long photoId, PhotoDto photoDto) {
         Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Photo not found with id: " + photoId));
@@ -146,27 +297,58 @@ public class PhotoServiceImpl implements PhotoService {
         photo.setDescription(photoDto.getDescription());
 
         Photo updatedPhoto = photoRepository.save(photo);
-        return mapToDto(updatedPhoto);
+
+        PhotoDto updatedPhotoDto = mapToDto(updatedPhoto);
+        outboxService.append(Topics.PHOTO_UPDATED, photoId, updatedPhotoDto);
+        return updatedPhotoDto;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PHOTO_METADATA, key = "#photoId")
     public void deletePhoto(Long photoId) {
         Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Photo not found with id: " + photoId));
 
-        try {
-            // Dosya sisteminden fiziksel dosyayı silmeye çalış
-            Path filePath = Paths.get(uploadDir, photo.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Dosya silme hatası olursa sadece log'la, işlemi durdurmuyoruz
-            System.err.println("Could not delete file: " + e.getMessage());
-        }
+        // Dosyanın referansını bırak; başka fotoğraf kullanmıyorsa dosya commit sonrasında arka planda silinir
+        photoStorage.release(photo.getFilePath());
+        photoVariantService.deleteVariants(photoId);
 
         // Mantıksal silme işlemi - veritabanında kaydı silmiyor, sadece flag'i değiştiriyor
         photo.setIsDelete(true);
         photoRepository.save(photo);
+
+        outboxService.append(Topics.PHOTO_DELETED, photoId, new PhotoDeletedMessage(photoId, photo.getUserId(), LocalDateTime.now()));
+    }
+
+    // Kullanıcı silindiğinde çağrılır. Kayıtlar tek UPDATE ile silinmiş işaretlenir, dosya ve küçük boyut
+    // referansları PhotoPurgeJob tarafından partiler halinde bırakılır. Tekrar çağrılması zararsızdır.
+    // Fotoğraf başına photo.deleted yayınlanmaz; tüketiciler user.deleted olayından haberdar olur.
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PHOTO_METADATA, allEntries = true)
+    public int deletePhotosByUserId(Long userId) {
+        return photoRepository.markDeletedForPurgeByUserId(userId);
+    }
+
+    private CursorPageDto<PhotoDto> toPage(Window<Photo> window) {
+        List<Photo> photos = window.getContent();
+        String nextCursor = window.hasNext() && !photos.isEmpty()
+                ? KeysetCursor.encode(photos.get(photos.size() - 1))
+                : null;
+
+        return CursorPageDto.<PhotoDto>builder()
+                .items(photos.stream().map(this::mapToDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Limit resolveLimit(Integer limit) {
+        if (limit == null) {
+            return Limit.of(defaultPageSize);
+        }
+
+        return Limit.of(Math.max(1, Math.min(limit, maxPageSize)));
     }
 
     private PhotoDto mapToDto(Photo photo) {
@@ -0,0 +1,283 @@
+package com.musdb.photoservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.model.PhotoVariant;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.repository.PhotoVariantRepository;
+import com.musdb.photoservice.service.PhotoVariantService;
+import com.musdb.photoservice.storage.PhotoStorage;
+import com.musdb.photoservice.storage.StoredPhoto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class PhotoVariantServiceImpl implements PhotoVariantService {
+    private static final Logger log = LoggerFactory.getLogger(PhotoVariantServiceImpl.class);
+
+    private final PhotoRepository photoRepository;
+    private final PhotoVariantRepository photoVariantRepository;
+    private final PhotoStorage photoStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    // Çözülemeyen ya da boyut sınırını aşan dosyalar, depo anahtarına göre
+    private final Cache<String, Boolean> unreadable = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    @Value("${photo.variants.max-megapixels:50}")
+    private long maxMegapixels;
+
+    // Aynı fotoğraf ve boyut için eşzamanlı istekler tek bir üretimi bekler
+    private final ConcurrentHashMap<String, CompletableFuture<PhotoVariant>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PhotoVariantServiceImpl(PhotoRepository photoRepository,
+                                   PhotoVariantRepository photoVariantRepository,
+                                   PhotoStorage photoStorage,
+                                   PlatformTransactionManager transactionManager) {
+        this.photoRepository = photoRepository;
+        this.photoVariantRepository = photoVariantRepository;
+        this.photoStorage = photoStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void generateVariants(Long photoId) {
+        Photo photo = photoRepository.findByPhotoIdAndIsDeleteFalse(photoId).orElse(null);
+        if (photo == null) {
+            return;
+        }
+
+        List<PhotoSize> missing = Arrays.stream(PhotoSize.values())
+                .filter(size -> photoVariantRepository.findByPhotoIdAndSize(photoId, size).isEmpty())
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // Orijinal bir kez, eksik boyutların en büyüğüne yetecek çözünürlükte çözülür; tüm boyutlar ondan üretilir
+        int largest = missing.stream().mapToInt(PhotoSize::getMaxDimension).max().getAsInt();
+        BufferedImage original = readImage(photo, largest);
+        if (original == null) {
+            return;
+        }
+
+        for (PhotoSize size : missing) {
+            createOnce(photo, size, () -> original);
+        }
+    }
+
+    // Boyut henüz üretilmediyse istek sırasında üretilir; görüntü çözülemezse null döner ve orijinal sunulur
+    @Override
+    public PhotoVariant getOrCreateVariant(Photo photo, PhotoSize size) {
+        Optional<PhotoVariant> existing = photoVariantRepository.findByPhotoIdAndSize(photo.getPhotoId(), size);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        return createOnce(photo, size, () -> readImage(photo, size.getMaxDimension()));
+    }
+
+    @Override
+    @Transactional
+    public void deleteVariants(Long photoId) {
+        List<PhotoVariant> variants = photoVariantRepository.findByPhotoId(photoId);
+        for (PhotoVariant variant : variants) {
+            if (variant.getFilePath() != null) {
+                photoStorage.release(variant.getFilePath());
+            }
+        }
+
+        photoVariantRepository.deleteAll(variants);
+    }
+
+    private PhotoVariant createOnce(Photo photo, PhotoSize size, Supplier<BufferedImage> source) {
+        String key = photo.getPhotoId() + ":" + size;
+        CompletableFuture<PhotoVariant> created = new CompletableFuture<>();
+        CompletableFuture<PhotoVariant> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            PhotoVariant variant = createVariant(photo, size, source.get());
+            created.complete(variant);
+            return variant;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private PhotoVariant createVariant(Photo photo, PhotoSize size, BufferedImage image) {
+        if (image == null) {
+            return null;
+        }
+
+        PhotoVariant variant = new PhotoVariant();
+        variant.setPhotoId(photo.getPhotoId());
+        variant.setSize(size);
+
+        // Orijinal zaten bu boyuttan küçükse yeni dosya yazılmaz, kayıt orijinali gösterir
+        byte[] encoded = null;
+        int longestSide = Math.max(image.getWidth(), image.getHeight());
+        if (longestSide <= size.getMaxDimension()) {
+            variant.setWidth(image.getWidth());
+            variant.setHeight(image.getHeight());
+        } else {
+            double scale = (double) size.getMaxDimension() / longestSide;
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            boolean hasAlpha = image.getColorModel().hasAlpha();
+            String format = hasAlpha ? "png" : "jpg";
+
+            encoded = encode(resize(image, width, height, hasAlpha), format);
+            variant.setPhotoExtension(format);
+            variant.setWidth(width);
+            variant.setHeight(height);
+        }
+
+        byte[] content = encoded;
+        try {
+            return transactionTemplate.execute(status -> {
+                if (content != null) {
+                    StoredPhoto storedPhoto = photoStorage.store(new ByteArrayInputStream(content));
+                    variant.setFilePath(storedPhoto.getStorageKey());
+                    variant.setContentHash(storedPhoto.getContentHash());
+                }
+                return photoVariantRepository.save(variant);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Başka bir instance aynı boyutu önce kaydetti
+            return photoVariantRepository.findByPhotoIdAndSize(photo.getPhotoId(), size).orElseThrow(() -> e);
+        }
+    }
+
+    // Önce yalnızca başlıktaki boyutlar okunur, sınırı aşan görüntü belleğe açılmaz. Hedefin iki katından büyük görüntüler
+    // alt örneklenerek çözülür, kalan küçültmeyi resize yapar
+    private BufferedImage readImage(Photo photo, int targetDimension) {
+        if (unreadable.getIfPresent(photo.getFilePath()) != null) {
+            return null;
+        }
+
+        try (ImageInputStream in = new FileImageInputStream(photoStorage.resolve(photo.getFilePath()).toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return skip(photo, "has an unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxMegapixels * 1_000_000L) {
+                    return skip(photo, "is " + width + "x" + height + ", above the limit of " + maxMegapixels + " megapixels");
+                }
+
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * targetDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IIOException e) {
+            return skip(photo, "could not be decoded (" + e.getMessage() + ")");
+        } catch (IOException e) {
+            // Dosyaya erişilemedi; geçici olabileceği için hatırlanmaz
+            log.warn("Could not read photo {} for variants: {}", photo.getPhotoId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Dosya içeriği değişmediği için çözülemeyen görüntü her istekte yeniden okunmaz, orijinal sunulmaya devam eder
+    private BufferedImage skip(Photo photo, String reason) {
+        unreadable.put(photo.getFilePath(), Boolean.TRUE);
+        log.warn("Photo {} {}, variants are skipped", photo.getPhotoId(), reason);
+        return null;
+    }
+
+    // Büyük küçültmelerde tek adımlı ölçekleme bulanık sonuç verdiği için boyut yarıya indirilerek ilerlenir
+    private BufferedImage resize(BufferedImage source, int width, int height, boolean hasAlpha) {
+        int type = hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!hasAlpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, String format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out)) {
+            if (!ImageIO.write(image, format, imageOut)) {
+                throw new FileStorageException("No image writer for format: " + format);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Could not encode photo variant: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,341 @@
+package com.musdb.photoservice.service.impl;
+
+import com.musdb.photoservice.dto.PhotoDto;
+import com.musdb.photoservice.dto.PhotoUploadDto;
+import com.musdb.photoservice.dto.UploadSessionDto;
+import com.musdb.photoservice.dto.UploadSessionRequestDto;
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import com.musdb.photoservice.exception.ResourceNotFoundException;
+import com.musdb.photoservice.exception.UploadConflictException;
+import com.musdb.photoservice.model.UploadSession;
+import com.musdb.photoservice.repository.UploadSessionRepository;
+import com.musdb.photoservice.service.PhotoService;
+import com.musdb.photoservice.service.UploadSessionService;
+import com.musdb.photoservice.storage.ImageFormat;
+import com.musdb.photoservice.storage.PhotoStorage;
+import com.musdb.photoservice.storage.StoredPhoto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// Parçalar oturumun .part dosyasına offset sırasıyla eklenir; tamamlanınca dosya kopyalanmadan depoya bağlanır,
+// parçalar birleştirilmek için tekrar okunmaz. Aynı oturuma eşzamanlı yazma .part dosyasının kilidiyle engellenir.
+@Service
+public class UploadSessionServiceImpl implements UploadSessionService {
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionServiceImpl.class);
+
+    private static final String SESSIONS_DIR = ".uploads";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoService photoService;
+
+    @Value("${photo.upload.dir}")
+    private String uploadDir;
+
+    @Value("${photo.upload.sessions.max-file-size:200MB}")
+    private DataSize maxFileSize;
+
+    @Value("${photo.upload.sessions.max-chunk-size:8MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${photo.upload.sessions.ttl:24h}")
+    private Duration ttl;
+
+    @Autowired
+    public UploadSessionServiceImpl(UploadSessionRepository uploadSessionRepository,
+                                    PhotoStorage photoStorage,
+                                    PhotoService photoService) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.photoStorage = photoStorage;
+        this.photoService = photoService;
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionDto createSession(UploadSessionRequestDto uploadSessionRequestDto) {
+        if (uploadSessionRequestDto.getTotalSize() > maxFileSize.toBytes()) {
+            throw new InvalidRequestException("File too large! Maximum allowed size is " + maxFileSize.toMegabytes() + " MB.");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setUploadId(UUID.randomUUID().toString());
+        session.setUserId(uploadSessionRequestDto.getUserId());
+        session.setPhotoName(uploadSessionRequestDto.getPhotoName());
+        session.setDescription(uploadSessionRequestDto.getDescription());
+        session.setTotalSize(uploadSessionRequestDto.getTotalSize());
+        session.setReceivedBytes(0L);
+
+        return mapToDto(uploadSessionRepository.save(session));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UploadSessionDto getSession(String uploadId) {
+        return mapToDto(findSession(uploadId, false));
+    }
+
+    // İstemciden okuma sırasında satır kilidi ve veritabanı bağlantısı tutulmaz: parça transaction dışında, .part dosyası
+    // üzerindeki dosya kilidiyle yazılır, offset sonunda koşullu update ile ilerletilir
+    @Override
+    public UploadSessionDto appendChunk(String uploadId, long offset, String checksum, InputStream content) {
+        UploadSession session = findSession(uploadId, false);
+        requireOffset(offset, session.getReceivedBytes());
+
+        Path partFile = partFile(uploadId);
+        try {
+            Files.createDirectories(partFile.getParent());
+            try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChunkWriter(channel)) {
+                // Kilidi bir önceki parçayı yazan istek bırakmış olabilir; offset kilit altında veritabanından tekrar okunur
+                requireOffset(offset, uploadSessionRepository.findReceivedBytes(uploadId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Upload session not found with id: " + uploadId)));
+
+                long written = writeChunk(channel, offset, session.getTotalSize() - offset, checksum, content);
+
+                LocalDateTime now = LocalDateTime.now();
+                if (uploadSessionRepository.advanceReceivedBytes(uploadId, offset, offset + written, now) == 0) {
+                    // Parça yazılırken oturum tamamlandı ya da iptal edildi
+                    if (!uploadSessionRepository.existsById(uploadId)) {
+                        deleteQuietly(partFile);
+                    }
+                    throw new UploadConflictException("Upload session changed while the chunk was being written");
+                }
+
+                // Oturum nesnesi transaction dışında değiştirilmez, yanıt yeni değerlerle kurulur
+                return UploadSessionDto.builder()
+                        .uploadId(uploadId)
+                        .totalSize(session.getTotalSize())
+                        .receivedBytes(offset + written)
+                        .expiresAt(now.plus(ttl))
+                        .build();
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to write chunk: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public PhotoDto completeSession(String uploadId) {
+        UploadSession session = findSession(uploadId, true);
+        if (!session.getReceivedBytes().equals(session.getTotalSize())) {
+            throw new UploadConflictException("Upload is incomplete: received " + session.getReceivedBytes()
+                    + " of " + session.getTotalSize() + " bytes");
+        }
+
+        Path partFile = partFile(uploadId);
+        ImageFormat format;
+        try (InputStream in = Files.newInputStream(partFile)) {
+            format = ImageFormat.detect(in.readNBytes(ImageFormat.HEADER_LENGTH));
+        } catch (IOException e) {
+            throw new UploadConflictException("Upload data is missing, start a new upload session");
+        }
+
+        if (format == null) {
+            throw new InvalidRequestException("Unsupported image format, expected JPEG, PNG, GIF or WebP");
+        }
+
+        // Depoya .part dosyasının kendisi değil bir bağlantısı taşınır, .part dosyası commit sonrasında silinir.
+        // Fotoğraf kaydı oluşturulamazsa oturum ve verisi yerinde kalır ve tamamlama yeniden denenebilir;
+        // geri alınan denemenin depoya bıraktığı dosya içerik adreslidir, tekrar denemede aynen kullanılır
+        Path link = linkForStorage(partFile);
+        StoredPhoto storedPhoto;
+        try {
+            storedPhoto = photoStorage.store(link);
+        } catch (RuntimeException e) {
+            deleteQuietly(link);
+            throw e;
+        }
+
+        PhotoUploadDto photoUploadDto = new PhotoUploadDto();
+        photoUploadDto.setPhotoName(session.getPhotoName());
+        photoUploadDto.setDescription(session.getDescription());
+        photoUploadDto.setUserId(session.getUserId());
+
+        uploadSessionRepository.delete(session);
+        PhotoDto photo = photoService.createPhoto(photoUploadDto, storedPhoto, format);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(partFile);
+            }
+        });
+        return photo;
+    }
+
+    @Override
+    @Transactional
+    public void abortSession(String uploadId) {
+        UploadSession session = findSession(uploadId, true);
+        uploadSessionRepository.delete(session);
+        deleteQuietly(partFile(uploadId));
+    }
+
+    // Son parçası ttl süresinden eski oturumlar ve dosyaları silinir
+    @Override
+    public int removeExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int removed = 0;
+
+        List<UploadSession> expired;
+        do {
+            expired = uploadSessionRepository.findByUpdatedAtBeforeOrderByUpdatedAt(cutoff, Limit.of(CLEANUP_BATCH_SIZE));
+            for (UploadSession session : expired) {
+                if (uploadSessionRepository.deleteIfIdle(session.getUploadId(), cutoff) > 0) {
+                    deleteQuietly(partFile(session.getUploadId()));
+                    removed++;
+                }
+            }
+        } while (expired.size() == CLEANUP_BATCH_SIZE);
+
+        return removed;
+    }
+
+    private void requireOffset(long offset, long receivedBytes) {
+        if (offset != receivedBytes) {
+            throw new UploadConflictException("Chunk offset " + offset + " does not match received bytes " + receivedBytes);
+        }
+    }
+
+    // Aynı oturuma parçalar sırayla gönderilir; eşzamanlı ikinci parça beklemeden reddedilir.
+    // Aynı JVM'deki ikinci kilit denemesi OverlappingFileLockException, başka süreçteki null döner
+    private FileLock lockChunkWriter(FileChannel channel) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+
+        if (lock == null) {
+            throw new UploadConflictException("Another chunk is being written to this upload session");
+        }
+        return lock;
+    }
+
+    // Yazılan byte sayısını döner; boyut ya da özet tutmazsa dosya offset'e geri kesilir
+    private long writeChunk(FileChannel channel, long offset, long remaining, String checksum, InputStream content) throws IOException {
+        if (channel.size() < offset) {
+            throw new UploadConflictException("Upload data is missing, start a new upload session");
+        }
+
+        // Önceki yarım kalmış denemeden kalan, onaylanmamış byte'lar atılır
+        channel.truncate(offset);
+        channel.position(offset);
+
+        long limit = Math.min(maxChunkSize.toBytes(), remaining);
+        MessageDigest digest = newDigest();
+        long written = 0;
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            written += read;
+            if (written > limit) {
+                channel.truncate(offset);
+                throw new InvalidRequestException("Chunk exceeds the allowed size of " + limit + " bytes");
+            }
+
+            digest.update(buffer, 0, read);
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+
+        if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(checksum.trim())) {
+            channel.truncate(offset);
+            throw new InvalidRequestException("Chunk checksum does not match");
+        }
+
+        // Offset veritabanına yazılmadan önce parça diske kalıcı olarak yazılmış olmalı
+        channel.force(false);
+        return written;
+    }
+
+    // Aynı diskte sabit bağlantı kopyalamadan oluşturulur; desteklenmeyen dosya sistemlerinde kopyalanır
+    private Path linkForStorage(Path partFile) {
+        Path link = partFile.resolveSibling(partFile.getFileName() + ".complete");
+        try {
+            Files.deleteIfExists(link);
+            try {
+                Files.createLink(link, partFile);
+            } catch (UnsupportedOperationException e) {
+                Files.copy(partFile, link);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+        }
+        return link;
+    }
+
+    private UploadSession findSession(String uploadId, boolean forUpdate) {
+        return (forUpdate ? uploadSessionRepository.findForUpdate(uploadId) : uploadSessionRepository.findById(uploadId))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found with id: " + uploadId));
+    }
+
+    // uploadId her zaman sunucuda üretilen UUID'dir; başka bir değer dosya yoluna karışmaz
+    private Path partFile(String uploadId) {
+        try {
+            return Paths.get(uploadDir, SESSIONS_DIR, UUID.fromString(uploadId) + ".part");
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Upload session not found with id: " + uploadId);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Dosya silme hatası olursa sadece log'la, işlemi durdurmuyoruz
+            log.warn("Could not delete file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private UploadSessionDto mapToDto(UploadSession session) {
+        return UploadSessionDto.builder()
+                .uploadId(session.getUploadId())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .expiresAt(session.getUpdatedAt().plus(ttl))
+                .build();
+    }
+}
@@ -0,0 +1,241 @@
+package com.musdb.photoservice.storage;
+
+import com.musdb.photoservice.cache.PhotoBytesCache;
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.model.FileTombstone;
+import com.musdb.photoservice.repository.FileTombstoneRepository;
+import com.musdb.photoservice.repository.PhotoBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Dosyalar SHA-256 özetine göre ab/cd/<sha256> şeklinde saklanır, aynı içerik tek kez yazılır.
+// Referans sayısı photo_blobs tablosunda tutulur; son referans bırakıldığında dosya commit sonrasında silinir.
+// UUID isimli eski dosyalar yükleme dizininin kökünde kalır ve referans sayısı olmadan yönetilir.
+@Service
+public class ContentAddressedPhotoStorage implements PhotoStorage {
+    private static final Logger log = LoggerFactory.getLogger(ContentAddressedPhotoStorage.class);
+
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}");
+    private static final String TEMP_DIR = ".tmp";
+    private static final int MAX_REFERENCE_ATTEMPTS = 3;
+
+    private final PhotoBlobRepository photoBlobRepository;
+    private final FileTombstoneRepository fileTombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PhotoBytesCache photoBytesCache;
+
+    @Value("${photo.upload.dir}")
+    private String uploadDir;
+
+    @Autowired
+    public ContentAddressedPhotoStorage(PhotoBlobRepository photoBlobRepository,
+                                        FileTombstoneRepository fileTombstoneRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        PhotoBytesCache photoBytesCache) {
+        this.photoBlobRepository = photoBlobRepository;
+        this.fileTombstoneRepository = fileTombstoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.photoBytesCache = photoBytesCache;
+    }
+
+    // İstemci akışı transaction açılmadan geçici dosyaya yazılır; yavaş istemci havuzdan bağlantı tutmaz.
+    // Dosya store(Path, String, long) ile depoya taşınmazsa çağıran siler
+    @Override
+    public SpooledPhoto spool(InputStream inputStream) {
+        Path tempFile = null;
+        try {
+            Path tempDir = Paths.get(uploadDir, TEMP_DIR);
+            Files.createDirectories(tempDir);
+            tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+
+            // Dosya diske yazılırken özet hesaplanır, içerik belleğe alınmaz
+            MessageDigest digest = newDigest();
+            long contentLength;
+            try (InputStream in = new DigestInputStream(inputStream, digest)) {
+                contentLength = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return new SpooledPhoto(tempFile, HexFormat.of().formatHex(digest.digest()), contentLength);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+
+    // Referans kısa bir transaction'da eklenir, çağıranın transaction'ı varsa ona katılır
+    @Override
+    public StoredPhoto store(InputStream inputStream) {
+        SpooledPhoto spooled = spool(inputStream);
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return moveIntoPlace(spooled.file(), spooled.contentHash(), spooled.contentLength());
+                } catch (IOException e) {
+                    throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+                }
+            });
+        } finally {
+            deleteQuietly(spooled.file());
+        }
+    }
+
+    // Dosya yükleme dizini ile aynı diskte olmalıdır; özet akış olarak okunarak hesaplanır, dosya kopyalanmaz, yerine taşınır
+    @Override
+    @Transactional
+    public StoredPhoto store(Path file) {
+        try {
+            MessageDigest digest = newDigest();
+            long contentLength;
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                contentLength = in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            return moveIntoPlace(file, HexFormat.of().formatHex(digest.digest()), contentLength);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+
+    // Özet dosya yazılırken hesaplandıysa dosya tekrar okunmaz; toplu içe aktarma özeti kopyalama aşamasında hesaplar
+    @Override
+    @Transactional
+    public StoredPhoto store(Path file, String contentHash, long contentLength) {
+        try {
+            return moveIntoPlace(file, contentHash, contentLength);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+
+    private StoredPhoto moveIntoPlace(Path source, String contentHash, long contentLength) throws IOException {
+        String storageKey = toStorageKey(contentHash);
+
+        // Referans önce veritabanında artırılır; satır kilidi aynı blob'u silen bir işlemle sıralamayı garanti eder
+        addReference(contentHash, contentLength);
+
+        Path target = resolve(storageKey);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+        } else {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(source);
+            }
+        }
+
+        return new StoredPhoto(storageKey, contentHash, contentLength);
+    }
+
+    @Override
+    public Path resolve(String storageKey) {
+        return Paths.get(uploadDir).resolve(storageKey);
+    }
+
+    // Dosya burada silinmez; commit sonrasında FileTombstoneReaper purge ile siler.
+    // Önbellekteki içerik ise reaper'ı beklemeden commit sonrasında bırakılır
+    @Override
+    @Transactional
+    public void release(String storageKey) {
+        if (CONTENT_KEY.matcher(storageKey).matches()) {
+            String contentHash = toContentHash(storageKey);
+            photoBlobRepository.decrementRefCount(contentHash);
+            if (!photoBlobRepository.existsByContentHashAndRefCountLessThanEqual(contentHash, 0L)) {
+                // Başka fotoğraflar hâlâ kullanıyor
+                return;
+            }
+        }
+
+        fileTombstoneRepository.save(new FileTombstone(storageKey));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                photoBytesCache.evict(storageKey);
+            }
+        });
+    }
+
+    // Referansı kalmayan dosyayı siler; bu arada yeniden referans aldıysa false döner ve dosyaya dokunulmaz.
+    // Silme hatası transaction'ı geri alır, blob satırı yerinde kalır ve bir sonraki denemede tekrar denenir.
+    @Override
+    @Transactional
+    public boolean purge(String storageKey) {
+        // Eski düz dizin düzenindeki dosyaların başka referansı olamaz
+        if (CONTENT_KEY.matcher(storageKey).matches()
+                && photoBlobRepository.deleteIfUnreferenced(toContentHash(storageKey)) == 0) {
+            return false;
+        }
+
+        try {
+            Files.deleteIfExists(resolve(storageKey));
+        } catch (IOException e) {
+            throw new FileStorageException("Could not delete file " + storageKey + ": " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    private void addReference(String contentHash, long contentLength) {
+        for (int attempt = 0; attempt < MAX_REFERENCE_ATTEMPTS; attempt++) {
+            if (photoBlobRepository.incrementRefCount(contentHash) > 0) {
+                return;
+            }
+            // Satır yok ya da arada referansı kalmadığı için silindi, yeniden oluşturulur
+            photoBlobRepository.insertIfAbsent(contentHash, contentLength, LocalDateTime.now());
+        }
+
+        throw new FileStorageException("Could not add a reference to blob " + contentHash);
+    }
+
+    private String toContentHash(String storageKey) {
+        return storageKey.substring(storageKey.lastIndexOf('/') + 1);
+    }
+
+    private String toStorageKey(String contentHash) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Dosya silme hatası olursa sadece log'la, işlemi durdurmuyoruz
+            log.warn("Could not delete file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.musdb.photoservice.storage;
+
+// Yüklenen içeriğin ilk byte'larından (magic number) tanınan görüntü biçimleri.
+// Dosya adındaki uzantıya güvenilmez, kayıtta bu biçimin uzantısı kullanılır.
+public enum ImageFormat {
+    JPEG("jpg"),
+    PNG("png"),
+    GIF("gif"),
+    WEBP("webp");
+
+    public static final int HEADER_LENGTH = 12;
+
+    private final String extension;
+
+    ImageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ImageFormat detect(byte[] header) {
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(header, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return PNG;
+        }
+        if (startsWith(header, 'G', 'I', 'F', '8')) {
+            return GIF;
+        }
+        // RIFF....WEBP
+        if (startsWith(header, 'R', 'I', 'F', 'F') && header.length >= 12
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int... magic) {
+        if (header.length < magic.length) {
+            return false;
+        }
+
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.musdb.photoservice.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface PhotoStorage {
+    SpooledPhoto spool(InputStream inputStream);
+
+    StoredPhoto store(InputStream inputStream);
+
+    StoredPhoto store(Path file);
+
+    StoredPhoto store(Path file, String contentHash, long contentLength);
+
+    Path resolve(String storageKey);
+
+    void release(String storageKey);
+
+    boolean purge(String storageKey);
+}
@@ -0,0 +1,7 @@
+package com.musdb.photoservice.storage;
+
+import java.nio.file.Path;
+
+// Depoya taşınmayı bekleyen geçici dosya; özet dosya yazılırken hesaplanmıştır
+public record SpooledPhoto(Path file, String contentHash, long contentLength) {
+}
@@ -0,0 +1,13 @@
+package com.musdb.photoservice.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredPhoto {
+    // Yükleme dizinine göre göreli yol, Photo.filePath alanına yazılır
+    private String storageKey;
+    private String contentHash;
+    private long contentLength;
+}
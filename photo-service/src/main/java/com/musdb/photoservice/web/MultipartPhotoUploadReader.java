@@ -0,0 +1,145 @@
+package com.musdb.photoservice.web;
+
+import com.musdb.photoservice.dto.PhotoUploadDto;
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Function;
+
+// Multipart gövdeyi servlet katmanında geçici dosyaya yazdırmadan parça parça okur; dosya parçası doğrudan depoya akar.
+// Form alanları dosyadan önce gönderilirse dosyadan sonraki parçalar okunmaz. Alanlar dosyadan sonra gelirse
+// akış geri sarılamadığı için dosya önce geçici dosyaya alınır.
+@Component
+public class MultipartPhotoUploadReader {
+    private static final String FILE_FIELD = "file";
+    private static final int MAX_FIELD_BYTES = 4096;
+
+    private final JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> fileUpload = new JakartaServletFileUpload<>();
+
+    @Autowired
+    public MultipartPhotoUploadReader(@Value("${photo.upload.max-file-size:10MB}") DataSize maxFileSize,
+                                      @Value("${photo.upload.max-request-size:10MB}") DataSize maxRequestSize) {
+        fileUpload.setMaxFileSize(maxFileSize.toBytes());
+        fileUpload.setMaxSize(maxRequestSize.toBytes());
+        fileUpload.setHeaderCharset(StandardCharsets.UTF_8);
+    }
+
+    // handler dosya parçası okunurken çağrılır; dönene kadar akış açık kalır
+    public <T> T read(HttpServletRequest request, Function<PhotoUploadDto, T> handler) throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new InvalidRequestException("Request must be multipart/form-data");
+        }
+
+        PhotoUploadDto photoUploadDto = new PhotoUploadDto();
+        Path spooled = null;
+        try {
+            FileItemInputIterator items = fileUpload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField()) {
+                    readField(item, photoUploadDto);
+                    continue;
+                }
+
+                if (!FILE_FIELD.equals(item.getFieldName())) {
+                    throw new InvalidRequestException("Unexpected file part: " + item.getFieldName());
+                }
+                if (spooled != null) {
+                    throw new InvalidRequestException("Only one file part is allowed");
+                }
+
+                if (hasRequiredFields(photoUploadDto)) {
+                    try (InputStream content = item.getInputStream()) {
+                        photoUploadDto.setContent(content);
+                        return handler.apply(photoUploadDto);
+                    }
+                }
+
+                // Alanlar dosyadan sonra geliyor; dosya geçici dosyaya alınır, kalan alanlar okunduktan sonra işlenir
+                spooled = Files.createTempFile("photo-upload-", ".part");
+                try (InputStream content = item.getInputStream()) {
+                    Files.copy(content, spooled, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            if (spooled == null) {
+                throw new InvalidRequestException("Photo file is required");
+            }
+            validateFields(photoUploadDto);
+            try (InputStream content = Files.newInputStream(spooled)) {
+                photoUploadDto.setContent(content);
+                return handler.apply(photoUploadDto);
+            }
+        } catch (FileUploadSizeException e) {
+            throw new MaxUploadSizeExceededException(e.getPermitted(), e);
+        } catch (FileStorageException e) {
+            // Boyut sınırı dosya depoya yazılırken aşılırsa depo hatası olarak gelir
+            if (e.getCause() instanceof FileUploadSizeException sizeException) {
+                throw new MaxUploadSizeExceededException(sizeException.getPermitted(), sizeException);
+            }
+            throw e;
+        } finally {
+            if (spooled != null) {
+                Files.deleteIfExists(spooled);
+            }
+        }
+    }
+
+    private void readField(FileItemInput item, PhotoUploadDto photoUploadDto) throws IOException {
+        String value;
+        try (InputStream in = item.getInputStream()) {
+            byte[] bytes = in.readNBytes(MAX_FIELD_BYTES + 1);
+            if (bytes.length > MAX_FIELD_BYTES) {
+                throw new InvalidRequestException("Field " + item.getFieldName() + " is too long");
+            }
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        switch (item.getFieldName()) {
+            case "photoName" -> photoUploadDto.setPhotoName(value);
+            case "description" -> photoUploadDto.setDescription(value);
+            case "userId" -> {
+                try {
+                    photoUploadDto.setUserId(Long.valueOf(value.trim()));
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("Invalid userId: " + value);
+                }
+            }
+            default -> {
+                // Bilinmeyen alanlar yok sayılır
+            }
+        }
+    }
+
+    private boolean hasRequiredFields(PhotoUploadDto photoUploadDto) {
+        return photoUploadDto.getPhotoName() != null && !photoUploadDto.getPhotoName().isBlank()
+                && photoUploadDto.getUserId() != null;
+    }
+
+    private void validateFields(PhotoUploadDto photoUploadDto) {
+        if (photoUploadDto.getPhotoName() == null || photoUploadDto.getPhotoName().isBlank()) {
+            throw new InvalidRequestException("Photo name is required");
+        }
+        if (photoUploadDto.getUserId() == null) {
+            throw new InvalidRequestException("User ID is required");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.musdb.photoservice.web;
+
+import com.musdb.photoservice.cache.PhotoBytesCache;
+import com.musdb.photoservice.dto.PhotoContentDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+// Fotoğraf içeriğini heap'e kopyalamadan yazar: Tomcat sendfile destekliyorsa dosyayı ona bırakır,
+// desteklemiyorsa FileChannel.transferTo ile parça parça aktarır.
+@Component
+public class PhotoContentWriter {
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final PhotoBytesCache photoBytesCache;
+
+    @Value("${photo.download.sendfile-threshold:49152}")
+    private long sendfileThreshold;
+
+    @Value("${photo.download.cache-max-age:31536000}")
+    private long cacheMaxAge;
+
+    @Autowired
+    public PhotoContentWriter(PhotoBytesCache photoBytesCache) {
+        this.photoBytesCache = photoBytesCache;
+    }
+
+    public void write(PhotoContentDto content, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = content.getContentLength();
+        String etag = resolveETag(content);
+
+        // Bir fotoğrafın içeriği hiç değişmez, tarayıcı ve CDN yeniden doğrulama yapmadan saklayabilir
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + cacheMaxAge + ", immutable");
+
+        // If-None-Match / If-Modified-Since eşleşirse 304 döner, dosya içeriğine dokunulmaz
+        if (new ServletWebRequest(request, response).checkNotModified(etag, content.getLastModified())) {
+            return;
+        }
+
+        response.setContentType(resolveContentType(content.getPhotoExtension()));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, resolveContentDisposition(content).toString());
+
+        long start = 0;
+        long end = length - 1;
+
+        HttpRange range = resolveRange(content, etag, request);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+
+            if (start > end) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if (count == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (photoBytesCache.isCacheable(length)) {
+            // Sıcak fotoğraflar heap dışındaki önbellekten, diske gitmeden yazılır
+            ByteBuffer buffer = photoBytesCache.get(content.getStorageKey(), content.getFilePath(), length);
+            buffer.limit((int) (start + count));
+            buffer.position((int) start);
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            return;
+        }
+
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // Tomcat gövdeyi yanıt commit edildikten sonra sendfile ile kendisi gönderir (end hariç tutulur)
+            request.setAttribute(SENDFILE_FILENAME_ATTR, content.getFilePath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(content.getFilePath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // Birden fazla aralık istenirse multipart/byteranges üretmek yerine dosyanın tamamı döner (RFC 9110'a uygun)
+    private HttpRange resolveRange(PhotoContentDto content, String etag, HttpServletRequest request) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || content.getContentLength() == 0 || !isIfRangeSatisfied(content, etag, request)) {
+            return null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private boolean isIfRangeSatisfied(PhotoContentDto content, String etag, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+
+        // If-Range sadece güçlü ETag karşılaştırması kabul eder
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+
+        try {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return ifRangeDate / 1000 == content.getLastModified() / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // İçerik özeti varsa doğrudan ETag olur, eski dosyalarda boyut ve değişiklik zamanı kullanılır
+    private String resolveETag(PhotoContentDto content) {
+        if (content.getContentHash() != null) {
+            return "\"" + content.getContentHash() + "\"";
+        }
+
+        return "\"" + Long.toHexString(content.getContentLength()) + "-" + Long.toHexString(content.getLastModified()) + "\"";
+    }
+
+    private String resolveContentType(String extension) {
+        if (extension == null) {
+            return "image/jpeg";
+        }
+
+        return switch (extension.toLowerCase(Locale.ROOT)) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    private ContentDisposition resolveContentDisposition(PhotoContentDto content) {
+        String filename = content.getPhotoName();
+        if (content.getPhotoExtension() != null && !content.getPhotoExtension().isBlank()) {
+            filename = filename + "." + content.getPhotoExtension();
+        }
+
+        // ASCII dışı karakter içeren isimler için filename* (RFC 5987) kullanılır
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(filename)) {
+            return ContentDisposition.inline().filename(filename).build();
+        }
+
+        return ContentDisposition.inline().filename(filename, StandardCharsets.UTF_8).build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.musdb.photoservice.web;
+
+import com.musdb.photoservice.model.PhotoSize;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// ?size=thumb gibi küçük harfli değerleri kabul etmek için; Locale.ROOT Türkçe "i" dönüşümünü engeller
+@Component
+public class PhotoSizeConverter implements Converter<String, PhotoSize> {
+    @Override
+    public PhotoSize convert(String source) {
+        return PhotoSize.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
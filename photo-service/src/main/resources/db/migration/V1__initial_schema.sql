@@ -0,0 +1,118 @@
+-- Flyway'den önce şema Hibernate ddl-auto ile oluşturuluyordu. Bu script o şemanın aynısıdır ve
+-- IF NOT EXISTS ile yazıldığı için mevcut veritabanlarında da çalışır (baseline-version: 0).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE SEQUENCE IF NOT EXISTS photos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS photo_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS file_tombstones_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS import_jobs_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS photos (
+    photo_id        bigint NOT NULL,
+    user_id         bigint,
+    photo_name      varchar(255),
+    description     varchar(255),
+    file_path       varchar(255),
+    photo_extension varchar(255),
+    content_hash    varchar(64),
+    is_delete       boolean,
+    pending_purge   boolean,
+    created_at      timestamp(6),
+    PRIMARY KEY (photo_id)
+);
+
+CREATE TABLE IF NOT EXISTS photo_variants (
+    variant_id      bigint NOT NULL,
+    photo_id        bigint,
+    size            varchar(255) CHECK (size IN ('THUMB', 'MEDIUM', 'LARGE')),
+    width           integer,
+    height          integer,
+    file_path       varchar(255),
+    photo_extension varchar(255),
+    content_hash    varchar(64),
+    created_at      timestamp(6),
+    PRIMARY KEY (variant_id),
+    UNIQUE (photo_id, size)
+);
+
+CREATE TABLE IF NOT EXISTS photo_blobs (
+    content_hash   varchar(64) NOT NULL,
+    content_length bigint,
+    ref_count      bigint,
+    created_at     timestamp(6),
+    PRIMARY KEY (content_hash)
+);
+
+CREATE TABLE IF NOT EXISTS file_tombstones (
+    tombstone_id    bigint       NOT NULL,
+    storage_key     varchar(255) NOT NULL,
+    attempts        integer      NOT NULL,
+    next_attempt_at timestamp(6) NOT NULL,
+    last_error      varchar(500),
+    created_at      timestamp(6),
+    PRIMARY KEY (tombstone_id)
+);
+
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    upload_id      varchar(36)  NOT NULL,
+    user_id        bigint       NOT NULL,
+    photo_name     varchar(255) NOT NULL,
+    description    varchar(255),
+    total_size     bigint       NOT NULL,
+    received_bytes bigint       NOT NULL,
+    created_at     timestamp(6),
+    updated_at     timestamp(6),
+    PRIMARY KEY (upload_id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    event_id     bigint       NOT NULL,
+    topic        varchar(100) NOT NULL,
+    message_key  varchar(100),
+    payload      text         NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    published_at timestamp(6),
+    PRIMARY KEY (event_id)
+);
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id            bigint       NOT NULL,
+    manifest          varchar(500) NOT NULL,
+    status            varchar(20)  NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED')),
+    records_committed bigint       NOT NULL,
+    imported          bigint       NOT NULL,
+    skipped           bigint       NOT NULL,
+    failed            bigint       NOT NULL,
+    parse_millis      bigint       NOT NULL,
+    prepare_millis    bigint       NOT NULL,
+    write_millis      bigint       NOT NULL,
+    elapsed_millis    bigint       NOT NULL,
+    last_error        varchar(500),
+    created_at        timestamp(6) NOT NULL,
+    updated_at        timestamp(6),
+    finished_at       timestamp(6),
+    PRIMARY KEY (job_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_photos_created_at_photo_id ON photos (created_at DESC, photo_id DESC);
+CREATE INDEX IF NOT EXISTS idx_photos_user_id_created_at_photo_id ON photos (user_id, created_at DESC, photo_id DESC);
+CREATE INDEX IF NOT EXISTS idx_photos_pending_purge_photo_id ON photos (pending_purge, photo_id);
+CREATE INDEX IF NOT EXISTS idx_file_tombstones_next_attempt_at ON file_tombstones (next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_updated_at ON upload_sessions (updated_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at_event_id ON outbox_events (published_at, event_id);
+
+CREATE INDEX IF NOT EXISTS idx_photos_photo_name_trgm ON photos USING gin (photo_name gin_trgm_ops);
+
+-- IDENTITY'den sequence'a geçişte eski kayıtların id'leri sequence'ın önünde kalır; sequence sadece gerideyse ileri alınır
+SELECT setval('photos_seq', (SELECT max(photo_id) FROM photos) + 50)
+WHERE (SELECT max(photo_id) FROM photos) > (SELECT last_value FROM photos_seq);
+
+SELECT setval('photo_variants_seq', (SELECT max(variant_id) FROM photo_variants) + 50)
+WHERE (SELECT max(variant_id) FROM photo_variants) > (SELECT last_value FROM photo_variants_seq);
+
+SELECT setval('file_tombstones_seq', (SELECT max(tombstone_id) FROM file_tombstones) + 50)
+WHERE (SELECT max(tombstone_id) FROM file_tombstones) > (SELECT last_value FROM file_tombstones_seq);
+
+SELECT setval('outbox_events_seq', (SELECT max(event_id) FROM outbox_events) + 50)
+WHERE (SELECT max(event_id) FROM outbox_events) > (SELECT last_value FROM outbox_events_seq);
@@ -0,0 +1,36 @@
+-- Büyük tablolarda yazmaları kilitlememek için index'ler CONCURRENTLY oluşturulur; bu yüzden script transaction dışında çalışır.
+-- Yarıda kalan bir CONCURRENTLY işlemi geçersiz (invalid) index bırakır; her index oluşturulmadan önce silindiği için
+-- başarısız bir çalıştırmadan sonra (flyway repair) script baştan tekrar çalıştırılabilir.
+
+-- Listeleme ve arama sorgularının tamamı is_delete = false ile filtrelenir; silinmiş fotoğraflar index'e hiç girmez.
+-- Keyset sayfalama sırası (created_at DESC, photo_id DESC) ile birebir eşleşir.
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_active_created_at_photo_id;
+CREATE INDEX CONCURRENTLY idx_photos_active_created_at_photo_id
+    ON photos (created_at DESC, photo_id DESC) WHERE is_delete = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_created_at_photo_id;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_active_user_id_created_at_photo_id;
+CREATE INDEX CONCURRENTLY idx_photos_active_user_id_created_at_photo_id
+    ON photos (user_id, created_at DESC, photo_id DESC) WHERE is_delete = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_user_id_created_at_photo_id;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_active_photo_name_trgm;
+CREATE INDEX CONCURRENTLY idx_photos_active_photo_name_trgm
+    ON photos USING gin (photo_name gin_trgm_ops) WHERE is_delete = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_photo_name_trgm;
+
+-- Toplu içe aktarmadaki tekrar kontrolü
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_active_content_hash;
+CREATE INDEX CONCURRENTLY idx_photos_active_content_hash
+    ON photos (content_hash) WHERE is_delete = false;
+
+-- Temizlenmeyi bekleyen fotoğraflar tablonun çok küçük bir kısmıdır; eski index tüm satırları tutuyordu
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_pending_purge;
+CREATE INDEX CONCURRENTLY idx_photos_pending_purge
+    ON photos (photo_id) WHERE pending_purge = true;
+DROP INDEX CONCURRENTLY IF EXISTS idx_photos_pending_purge_photo_id;
+
+-- OutboxRelay sadece yayınlanmamış olayları okur; yayınlanmışlar temizlenene kadar bu index'e girmez
+DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_events_unpublished_event_id;
+CREATE INDEX CONCURRENTLY idx_outbox_events_unpublished_event_id
+    ON outbox_events (event_id) WHERE published_at IS NULL;
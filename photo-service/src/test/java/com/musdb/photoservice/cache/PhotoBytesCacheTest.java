@@ -0,0 +1,102 @@
+package com.musdb.photoservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PhotoBytesCacheTest {
+	private static final String KEY = "ab/cd/hot";
+
+	@TempDir
+	private Path dir;
+
+	private final CountDownLatch loading = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Test
+	void concurrentMissesReadFileOnce() throws Exception {
+		byte[] content = "hot photo bytes".getBytes();
+		Path file = Files.write(dir.resolve("hot"), content);
+		PhotoBytesCache cache = blockingCache();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ByteBuffer>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> cache.get(KEY, file, content.length)));
+			}
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			// Diğer istekler yükleyicinin sonucunu beklerken okuma serbest bırakılır
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<ByteBuffer> result : results) {
+				assertEquals(ByteBuffer.wrap(content), result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		verify(cache, times(1)).load(file, content.length);
+		cache.get(KEY, file, content.length);
+		verify(cache, times(1)).load(file, content.length);
+	}
+
+	@Test
+	void evictDuringLoadDoesNotCacheResult() throws Exception {
+		byte[] content = "soon deleted".getBytes();
+		Path file = Files.write(dir.resolve("deleted"), content);
+		PhotoBytesCache cache = blockingCache();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ByteBuffer> result = executor.submit(() -> cache.get(KEY, file, content.length));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			cache.evict(KEY);
+			release.countDown();
+			assertEquals(ByteBuffer.wrap(content), result.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		cache.get(KEY, file, content.length);
+		verify(cache, times(2)).load(file, content.length);
+	}
+
+	// İlk okuma release açılana kadar bekler
+	private PhotoBytesCache blockingCache() throws Exception {
+		PhotoBytesCache cache = new PhotoBytesCache();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "maxBytes", 1024L);
+		ReflectionTestUtils.setField(cache, "maxEntryBytes", 1024L);
+		ReflectionTestUtils.setField(cache, "protectedRatio", 0.8);
+
+		PhotoBytesCache spied = spy(cache);
+		doAnswer(invocation -> {
+			loading.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			return invocation.callRealMethod();
+		}).when(spied).load(any(), anyLong());
+		return spied;
+	}
+}
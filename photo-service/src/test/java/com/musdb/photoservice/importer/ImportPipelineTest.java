@@ -0,0 +1,105 @@
+package com.musdb.photoservice.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportPipelineTest {
+	private final ExecutorService prepareExecutor = Executors.newFixedThreadPool(4);
+	private final ExecutorService writerExecutor = Executors.newSingleThreadExecutor();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void shutdown() {
+		prepareExecutor.shutdownNow();
+		writerExecutor.shutdownNow();
+	}
+
+	@Test
+	void writesBatchesInOrderAfterCheckpointWithBoundedBacklog() throws Exception {
+		Path manifest = manifest(100);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<Long> written = new CopyOnWriteArrayList<>();
+
+		ImportPipeline<List<Long>> pipeline = new ImportPipeline<>(7, 2, prepareExecutor, writerExecutor);
+		try (ManifestReader reader = ManifestReader.open(manifest, objectMapper)) {
+			pipeline.run(reader, 10, records -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				// Hazırlama süresi partiden partiye değişir, yazma sırası yine de korunmalı
+				sleep(ThreadLocalRandom.current().nextInt(5));
+				return records.stream().map(ManifestRecord::getNumber).toList();
+			}, batch -> {
+				sleep(3);
+				written.addAll(batch.getPrepared());
+				inFlight.decrementAndGet();
+			}, prepared -> {
+			}, () -> false);
+		}
+
+		assertEquals(LongStream.rangeClosed(11, 100).boxed().toList(), written);
+		// Kuyruktaki partiler + yazılan parti + kuyruğa girmeyi bekleyen parti
+		assertTrue(maxInFlight.get() <= 4, "in flight: " + maxInFlight.get());
+	}
+
+	@Test
+	void writerFailureStopsReadingAndDiscardsPreparedBatches() throws Exception {
+		Path manifest = manifest(1000);
+		AtomicInteger prepared = new AtomicInteger();
+		AtomicInteger written = new AtomicInteger();
+		AtomicInteger discarded = new AtomicInteger();
+
+		ImportPipeline<Integer> pipeline = new ImportPipeline<>(10, 2, prepareExecutor, writerExecutor);
+		try (ManifestReader reader = ManifestReader.open(manifest, objectMapper)) {
+			assertThrows(IllegalStateException.class, () -> pipeline.run(reader, 0, records -> {
+				prepared.incrementAndGet();
+				return records.size();
+			}, batch -> {
+				if (written.incrementAndGet() == 3) {
+					throw new IllegalStateException("write failed");
+				}
+			}, batch -> discarded.incrementAndGet(), () -> false));
+		}
+
+		Thread.sleep(50);
+		assertTrue(prepared.get() < 100, "prepared: " + prepared.get());
+		assertEquals(prepared.get(), written.get() + discarded.get());
+	}
+
+	private Path manifest(int rows) throws Exception {
+		Path manifest = dir.resolve("photos.csv");
+		String lines = IntStream.rangeClosed(1, rows)
+				.mapToObj(i -> "photos/" + i + ".jpg,\"Photo, " + i + "\"")
+				.collect(Collectors.joining("\n"));
+		Files.writeString(manifest, "file,photoName\n" + lines + "\n");
+		return manifest;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
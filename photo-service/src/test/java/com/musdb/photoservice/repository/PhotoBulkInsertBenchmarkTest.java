@@ -0,0 +1,66 @@
+package com.musdb.photoservice.repository;
+
+import com.musdb.photoservice.model.Photo;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Satır sayısı -Dbenchmark.rows ile büyütülebilir; hız log'a yazılır, test sadece batch'in devrede olduğunu doğrular
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PhotoBulkInsertBenchmarkTest {
+	private static final Logger log = LoggerFactory.getLogger(PhotoBulkInsertBenchmarkTest.class);
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 2000);
+	private static final int CHUNK_SIZE = 500;
+
+	@Autowired
+	private PhotoRepository photoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void insertsPhotosInBatches() {
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		long startedAt = System.nanoTime();
+		for (int from = 0; from < ROWS; from += CHUNK_SIZE) {
+			List<Photo> photos = new ArrayList<>();
+			for (int i = from; i < Math.min(from + CHUNK_SIZE, ROWS); i++) {
+				Photo photo = new Photo();
+				photo.setPhotoName("Bulk photo " + i);
+				photo.setPhotoExtension("jpg");
+				photo.setFilePath("bulk/" + i + ".jpg");
+				photo.setUserId((long) (i % 100));
+				photo.setIsDelete(false);
+				photos.add(photo);
+			}
+
+			photoRepository.saveAll(photos);
+			entityManager.flush();
+			entityManager.clear();
+		}
+		long elapsedNanos = System.nanoTime() - startedAt;
+
+		long statements = statistics.getPrepareStatementCount();
+		log.info("Inserted {} photos in {} ms ({} rows/s, {} statements)",
+				ROWS, elapsedNanos / 1_000_000, (long) (ROWS * 1e9 / elapsedNanos), statements);
+
+		assertEquals(ROWS, statistics.getEntityInsertCount());
+		// Batch olmadan satır başına bir statement gerekirdi
+		assertTrue(statements < ROWS / 10, "Expected batched inserts but prepared " + statements + " statements");
+	}
+}
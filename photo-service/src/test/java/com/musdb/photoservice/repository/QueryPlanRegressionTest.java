@@ -0,0 +1,140 @@
+package com.musdb.photoservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Şema Flyway migration'larıyla kurulur, sorgular Hibernate'in ürettiği SQL'in aynısıdır.
+// Docker yoksa test atlanır.
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.database=postgresql",
+		"spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+		"spring.datasource.driver-class-name=org.postgresql.Driver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+// VACUUM transaction içinde çalışmaz
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanRegressionTest {
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private static boolean seeded;
+
+	// Boş ya da vacuum görmemiş tabloda planlayıcının index seçimi üretimdekiyle aynı olmaz;
+	// temsili veri container başına bir kez yüklenir ve VACUUM ANALYZE ile istatistikler oluşturulur
+	@BeforeEach
+	void seed() {
+		if (seeded) {
+			return;
+		}
+		jdbcTemplate.execute("insert into photos (photo_id, user_id, photo_name, file_path, photo_extension, content_hash, " +
+				"is_delete, pending_purge, created_at) " +
+				"select i, i % 500 + 1, 'Photo ' || i, 'photos/' || i, 'jpg', md5(i::text) || md5((i + 1)::text), " +
+				"i % 10 = 0, i % 500 = 0, timestamp '2026-01-01 00:00:00' - i * interval '1 minute' from generate_series(1, 20000) i");
+		jdbcTemplate.execute("insert into outbox_events (event_id, topic, payload, created_at, published_at) " +
+				"select i, 'photo-events', '{}', now(), case when i > 9900 then null else now() end " +
+				"from generate_series(1, 10000) i");
+		jdbcTemplate.execute("insert into file_tombstones (tombstone_id, storage_key, attempts, next_attempt_at, created_at) " +
+				"select i, 'photos/' || i, i % 5, timestamp '2026-01-01 00:00:00' + (i - 100) * interval '1 minute', now() from generate_series(1, 5000) i");
+		jdbcTemplate.execute("vacuum analyze photos, outbox_events, file_tombstones");
+		seeded = true;
+	}
+
+	static Stream<Arguments> hotQueries() {
+		return Stream.of(
+				Arguments.of("findByIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc (first page)", "idx_photos_active_created_at_photo_id",
+						"select p1_0.photo_id, p1_0.photo_name, p1_0.file_path from photos p1_0 " +
+								"where not(p1_0.is_delete) order by p1_0.created_at desc, p1_0.photo_id desc fetch first 21 rows only"),
+				Arguments.of("findByIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc", "idx_photos_active_created_at_photo_id",
+						"select p1_0.photo_id, p1_0.photo_name, p1_0.file_path from photos p1_0 " +
+								"where not(p1_0.is_delete) and (p1_0.created_at < timestamp '2025-12-31 12:00:00' " +
+								"or p1_0.created_at = timestamp '2025-12-31 12:00:00' and p1_0.photo_id < 720) " +
+								"order by p1_0.created_at desc, p1_0.photo_id desc fetch first 21 rows only"),
+				Arguments.of("findByUserIdAndIsDeleteFalseOrderByCreatedAtDescPhotoIdDesc", "idx_photos_active_user_id_created_at_photo_id",
+						"select p1_0.photo_id, p1_0.photo_name, p1_0.file_path from photos p1_0 " +
+								"where p1_0.user_id = 7 and not(p1_0.is_delete) and (p1_0.created_at < timestamp '2025-12-31 12:00:00' " +
+								"or p1_0.created_at = timestamp '2025-12-31 12:00:00' and p1_0.photo_id < 720) " +
+								"order by p1_0.created_at desc, p1_0.photo_id desc fetch first 21 rows only"),
+				Arguments.of("markDeletedForPurgeByUserId", "idx_photos_active_user_id_created_at_photo_id",
+						"update photos p1_0 set is_delete = true, pending_purge = true " +
+								"where p1_0.user_id = 7 and p1_0.is_delete = false"),
+				Arguments.of("searchByTrigram", "idx_photos_active_photo_name_trgm",
+						"select p.* from photos p where p.is_delete = false " +
+								"and (p.photo_name ilike '%sun%' or 'sun' <% p.photo_name) " +
+								"order by word_similarity('sun', p.photo_name) desc, p.photo_id desc limit 20 offset 0"),
+				Arguments.of("findByContentHashInAndIsDeleteFalse", "idx_photos_active_content_hash",
+						"select p1_0.photo_id, p1_0.photo_name, p1_0.file_path from photos p1_0 " +
+								"where p1_0.content_hash in ('c4ca4238a0b923820dcc509a6f75849bc81e728d9d4c2f636f067f89cc14862c') " +
+								"and not(p1_0.is_delete)"),
+				Arguments.of("findPendingPurgeForUpdate", "idx_photos_pending_purge",
+						"select p1_0.photo_id, p1_0.photo_name, p1_0.file_path from photos p1_0 " +
+								"where p1_0.pending_purge = true order by p1_0.photo_id " +
+								"fetch first 100 rows only for no key update skip locked"),
+				Arguments.of("countByPendingPurgeTrue", "idx_photos_pending_purge",
+						"select count(p1_0.photo_id) from photos p1_0 where p1_0.pending_purge"),
+				Arguments.of("findUnpublishedForUpdate", "idx_outbox_events_unpublished_event_id",
+						"select oe1_0.event_id, oe1_0.payload from outbox_events oe1_0 " +
+								"where oe1_0.published_at is null order by oe1_0.event_id " +
+								"fetch first 100 rows only for no key update skip locked"),
+				Arguments.of("findDueForUpdate", "idx_file_tombstones_next_attempt_at",
+						"select ft1_0.tombstone_id, ft1_0.storage_key from file_tombstones ft1_0 " +
+								"where ft1_0.next_attempt_at <= timestamp '2026-01-01 00:00:00' order by ft1_0.next_attempt_at " +
+								"fetch first 100 rows only for no key update skip locked"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("hotQueries")
+	void hotQueryUsesIndex(String query, String index, String sql) {
+		List<String> plan = explain(sql);
+		String planText = String.join("\n", plan);
+
+		assertTrue(plan.stream().noneMatch(line -> line.contains("Seq Scan")), () -> query + " falls back to a sequential scan:\n" + planText);
+		assertTrue(planText.contains(index), () -> query + " does not use " + index + ":\n" + planText);
+	}
+
+	// Bu kadar küçük tablolarda seq scan gerçekten ucuzdur; kapatıldığında uygun index yoksa planlayıcı yine seq scan'e düşer
+	private List<String> explain(String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("set enable_seqscan = off");
+				List<String> plan = new ArrayList<>();
+				try (ResultSet resultSet = statement.executeQuery("explain " + sql)) {
+					while (resultSet.next()) {
+						plan.add(resultSet.getString(1));
+					}
+				}
+				statement.execute("reset enable_seqscan");
+				return plan;
+			}
+		});
+	}
+}
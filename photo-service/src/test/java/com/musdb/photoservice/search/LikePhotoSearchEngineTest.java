@@ -0,0 +1,64 @@
+package com.musdb.photoservice.search;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LikePhotoSearchEngine.class)
+class LikePhotoSearchEngineTest {
+
+	@Autowired
+	private PhotoRepository photoRepository;
+
+	@Autowired
+	private PhotoSearchEngine photoSearchEngine;
+
+	@BeforeEach
+	void setUp() {
+		save("Beach at sunset", false);
+		save("Sunset", false);
+		save("Sunset over the bay", false);
+		save("Sunset deleted", true);
+		save("50%_off", false);
+		save("Mountains", false);
+	}
+
+	@Test
+	void ranksExactThenPrefixThenContains() {
+		assertEquals(List.of("Sunset", "Sunset over the bay", "Beach at sunset"), names(photoSearchEngine.search("sunset", 0, 10)));
+	}
+
+	@Test
+	void pagesWithOffsetAndLimit() {
+		assertEquals(List.of("Sunset over the bay"), names(photoSearchEngine.search("sunset", 1, 1)));
+	}
+
+	@Test
+	void treatsWildcardsLiterally() {
+		assertEquals(List.of("50%_off"), names(photoSearchEngine.search("%_", 0, 10)));
+	}
+
+	private void save(String name, boolean deleted) {
+		Photo photo = new Photo();
+		photo.setPhotoName(name);
+		photo.setUserId(1L);
+		photo.setFilePath("test");
+		photo.setIsDelete(deleted);
+		photoRepository.save(photo);
+	}
+
+	private List<String> names(List<Photo> photos) {
+		return photos.stream().map(Photo::getPhotoName).toList();
+	}
+}
@@ -0,0 +1,95 @@
+package com.musdb.photoservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtClaimsCacheTest {
+	private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+	@Test
+	void entryExpiresWithTheToken() throws Exception {
+		JwtClaimsCache cache = new JwtClaimsCache(10);
+		// exp saniye hassasiyetinde saklanır
+		long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+		Claims claims = claims("ali", expiresAt);
+		cache.put("token", claims);
+
+		assertSame(claims, cache.get("token"));
+
+		Thread.sleep(expiresAt - System.currentTimeMillis() + 50);
+		assertNull(cache.get("token"));
+	}
+
+	@Test
+	void tokenWithoutExpiryIsNotCached() {
+		JwtClaimsCache cache = new JwtClaimsCache(10);
+		cache.put("token", Jwts.claims().setSubject("ali"));
+
+		assertNull(cache.get("token"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedAtMaxEntries() {
+		JwtClaimsCache cache = new JwtClaimsCache(2);
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		cache.put("a", claims("a", expiresAt));
+		cache.put("b", claims("b", expiresAt));
+		cache.get("a");
+
+		cache.put("c", claims("c", expiresAt));
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+	}
+
+	@Test
+	void tamperedTokenIsNeverServedFromCache() {
+		JwtClaimsCache cache = new JwtClaimsCache(10);
+		JwtService jwtService = new JwtService(cache);
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+		Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+		String token = Jwts.builder()
+				.setSubject("ali")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(key, SignatureAlgorithm.HS256)
+				.compact();
+		assertEquals("ali", jwtService.parseClaims(token).getSubject());
+		assertNotNull(cache.get(token));
+
+		// Geçerli imzayla başka bir subject taşıyan ve imzası bozulmuş token önbellekteki claim'leri alamaz
+		String[] parts = token.split("\\.");
+		String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+				("{\"sub\":\"admin\",\"exp\":" + (System.currentTimeMillis() / 1000 + 60) + "}").getBytes(StandardCharsets.UTF_8));
+		String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+		char first = parts[2].charAt(0);
+		String badSignature = parts[0] + "." + parts[1] + "." + (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+		assertThrows(SignatureException.class, () -> jwtService.parseClaims(forged));
+		assertThrows(SignatureException.class, () -> jwtService.parseClaims(badSignature));
+		assertNull(cache.get(forged));
+		assertNull(cache.get(badSignature));
+	}
+
+	private Claims claims(String subject, long expiresAt) {
+		return Jwts.claims().setSubject(subject).setExpiration(new Date(expiresAt));
+	}
+}
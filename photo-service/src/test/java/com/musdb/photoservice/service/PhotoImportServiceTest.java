@@ -0,0 +1,94 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.ImportJobDto;
+import com.musdb.photoservice.dto.ImportRequestDto;
+import com.musdb.photoservice.model.ImportStatus;
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.storage.PhotoStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "photo.import.batch-size=2")
+@ActiveProfiles("test")
+class PhotoImportServiceTest {
+	private static final long USER_ID = 4242L;
+
+	@Autowired
+	private PhotoImportService photoImportService;
+
+	@Autowired
+	private PhotoRepository photoRepository;
+
+	@Autowired
+	private PhotoStorage photoStorage;
+
+	@Value("${photo.import.dir}")
+	private String importDir;
+
+	@Value("${photo.upload.dir}")
+	private String uploadDir;
+
+	@Test
+	void copiesFilesAndCountsSkippedAndFailed() throws Exception {
+		Path dir = Paths.get(importDir, "photos-report");
+		Files.createDirectories(dir);
+		Files.write(dir.resolve("a.jpg"), new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3});
+		Files.write(dir.resolve("b.png"), new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 4, 5});
+		Files.writeString(dir.resolve("notes.txt"), "not an image");
+		Files.write(Paths.get(importDir, "photos-report.csv"), List.of(
+				"file,photoName,description,userId",
+				"photos-report/a.jpg,First,\"Beach, evening\"," + USER_ID,
+				"photos-report/b.png,Second,," + USER_ID,
+				"photos-report/a.jpg,Again,," + USER_ID,
+				"photos-report/notes.txt,Text,," + USER_ID,
+				"photos-report/missing.jpg,Missing,," + USER_ID,
+				"../outside.jpg,Outside,," + USER_ID));
+
+		ImportRequestDto request = new ImportRequestDto();
+		request.setManifest("photos-report.csv");
+		ImportJobDto job = await(photoImportService.startImport(request).getJobId());
+
+		assertEquals(ImportStatus.COMPLETED, job.getStatus());
+		assertEquals(6, job.getRecordsCommitted());
+		assertEquals(2, job.getImported());
+		assertEquals(1, job.getSkipped());
+		assertEquals(3, job.getFailed());
+
+		List<Photo> photos = photoRepository.findAll().stream()
+				.filter(photo -> photo.getUserId() == USER_ID)
+				.toList();
+		assertEquals(2, photos.size());
+		Photo first = photos.stream().filter(photo -> photo.getPhotoName().equals("First")).findFirst().orElseThrow();
+		assertEquals("Beach, evening", first.getDescription());
+		assertEquals("jpg", first.getPhotoExtension());
+		assertTrue(Files.exists(photoStorage.resolve(first.getFilePath())));
+
+		// Atlanan ve reddedilen kayıtların geçici dosyaları kalmaz
+		try (Stream<Path> temp = Files.list(Paths.get(uploadDir, ".tmp"))) {
+			assertTrue(temp.noneMatch(path -> path.getFileName().toString().startsWith("import-")));
+		}
+	}
+
+	private ImportJobDto await(Long jobId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		ImportJobDto job = photoImportService.getImport(jobId);
+		while (job.getStatus() == ImportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			job = photoImportService.getImport(jobId);
+		}
+		return job;
+	}
+}
@@ -0,0 +1,58 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.PhotoDto;
+import com.musdb.photoservice.dto.PhotoUploadDto;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.storage.PhotoStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PhotoUploadServiceTest {
+	private static final long USER_ID = 6161L;
+
+	@Autowired
+	private PhotoService photoService;
+
+	@Autowired
+	private PhotoRepository photoRepository;
+
+	@Autowired
+	private PhotoStorage photoStorage;
+
+	@Test
+	void readsClientStreamWithoutTransaction() throws Exception {
+		byte[] content = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 7, 8, 9, 10};
+		boolean[] readInTransaction = {false};
+		InputStream clientStream = new ByteArrayInputStream(content) {
+			@Override
+			public synchronized int read(byte[] buffer, int offset, int length) {
+				// Yavaş istemci okunurken havuzdan bağlantı tutulmamalı
+				readInTransaction[0] |= TransactionSynchronizationManager.isActualTransactionActive();
+				return super.read(buffer, offset, length);
+			}
+		};
+
+		PhotoUploadDto upload = new PhotoUploadDto();
+		upload.setPhotoName("Streamed");
+		upload.setUserId(USER_ID);
+		upload.setContent(clientStream);
+		PhotoDto photo = photoService.uploadPhoto(upload);
+
+		assertFalse(readInTransaction[0]);
+		assertEquals("Streamed", photoService.getPhotoById(photo.getPhotoId()).getPhotoName());
+		assertArrayEquals(content, Files.readAllBytes(photoStorage.resolve(photoRepository.findById(photo.getPhotoId()).orElseThrow().getFilePath())));
+	}
+}
@@ -0,0 +1,101 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.model.PhotoSize;
+import com.musdb.photoservice.model.PhotoVariant;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.repository.PhotoVariantRepository;
+import com.musdb.photoservice.service.impl.PhotoVariantServiceImpl;
+import com.musdb.photoservice.storage.PhotoStorage;
+import com.musdb.photoservice.storage.StoredPhoto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoVariantServiceTest {
+	@TempDir
+	Path tempDir;
+
+	private final PhotoVariantRepository photoVariantRepository = mock(PhotoVariantRepository.class);
+	private final PhotoStorage photoStorage = mock(PhotoStorage.class);
+	private final AtomicReference<byte[]> stored = new AtomicReference<>();
+
+	private PhotoVariantServiceImpl photoVariantService;
+
+	@BeforeEach
+	void setUp() {
+		when(photoVariantRepository.findByPhotoIdAndSize(anyLong(), any())).thenReturn(Optional.empty());
+		when(photoVariantRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(photoStorage.resolve(any())).thenAnswer(invocation -> tempDir.resolve(invocation.<String>getArgument(0)));
+		when(photoStorage.store(any(InputStream.class))).thenAnswer(invocation -> {
+			stored.set(invocation.<InputStream>getArgument(0).readAllBytes());
+			return new StoredPhoto("variant", "hash", stored.get().length);
+		});
+
+		photoVariantService = new PhotoVariantServiceImpl(mock(PhotoRepository.class), photoVariantRepository,
+				photoStorage, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(photoVariantService, "maxMegapixels", 1L);
+	}
+
+	@Test
+	void decodesLargeOriginalSubsampledToTheRequestedSize() throws Exception {
+		Photo photo = photo(1L, "wide.png", 1000, 500);
+
+		PhotoVariant variant = photoVariantService.getOrCreateVariant(photo, PhotoSize.THUMB);
+
+		assertEquals(200, variant.getWidth());
+		assertEquals(100, variant.getHeight());
+		BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(stored.get()));
+		assertEquals(200, thumb.getWidth());
+		assertEquals(100, thumb.getHeight());
+	}
+
+	@Test
+	void skipsAndRemembersImagesAboveMegapixelLimit() throws Exception {
+		Photo photo = photo(2L, "huge.png", 1200, 1000);
+
+		assertNull(photoVariantService.getOrCreateVariant(photo, PhotoSize.THUMB));
+		assertNull(photoVariantService.getOrCreateVariant(photo, PhotoSize.MEDIUM));
+		verify(photoStorage, times(1)).resolve("huge.png");
+	}
+
+	@Test
+	void remembersUndecodableFiles() throws Exception {
+		Files.writeString(tempDir.resolve("broken.jpg"), "not an image");
+		Photo photo = new Photo();
+		photo.setPhotoId(3L);
+		photo.setFilePath("broken.jpg");
+
+		assertNull(photoVariantService.getOrCreateVariant(photo, PhotoSize.THUMB));
+		assertNull(photoVariantService.getOrCreateVariant(photo, PhotoSize.THUMB));
+		verify(photoStorage, times(1)).resolve("broken.jpg");
+	}
+
+	private Photo photo(Long photoId, String fileName, int width, int height) throws Exception {
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", tempDir.resolve(fileName).toFile());
+		Photo photo = new Photo();
+		photo.setPhotoId(photoId);
+		photo.setFilePath(fileName);
+		return photo;
+	}
+}
@@ -0,0 +1,201 @@
+package com.musdb.photoservice.service;
+
+import com.musdb.photoservice.dto.PhotoDto;
+import com.musdb.photoservice.dto.UploadSessionDto;
+import com.musdb.photoservice.dto.UploadSessionRequestDto;
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import com.musdb.photoservice.exception.UploadConflictException;
+import com.musdb.photoservice.model.Photo;
+import com.musdb.photoservice.repository.PhotoRepository;
+import com.musdb.photoservice.storage.PhotoStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = "photo.upload.sessions.max-chunk-size=16B")
+@ActiveProfiles("test")
+class UploadSessionServiceTest {
+	private static final long USER_ID = 5151L;
+
+	@Autowired
+	private UploadSessionService uploadSessionService;
+
+	@Autowired
+	private PhotoRepository photoRepository;
+
+	@Autowired
+	private PhotoStorage photoStorage;
+
+	@MockitoSpyBean
+	private PhotoService photoService;
+
+	@Value("${photo.upload.dir}")
+	private String uploadDir;
+
+	@Test
+	void rejectsChunkAtWrongOffset() {
+		byte[] content = jpeg(20);
+		String uploadId = create(content.length);
+		append(uploadId, 0, content, 0, 10);
+
+		UploadConflictException conflict = assertThrows(UploadConflictException.class,
+				() -> append(uploadId, 5, content, 5, 15));
+		assertEquals("Chunk offset 5 does not match received bytes 10", conflict.getMessage());
+		assertEquals(10, uploadSessionService.getSession(uploadId).getReceivedBytes());
+	}
+
+	@Test
+	void rejectsBadChecksumAndDiscardsChunk() throws Exception {
+		byte[] content = jpeg(20);
+		String uploadId = create(content.length);
+		append(uploadId, 0, content, 0, 10);
+
+		byte[] chunk = Arrays.copyOfRange(content, 10, 20);
+		assertThrows(InvalidRequestException.class,
+				() -> uploadSessionService.appendChunk(uploadId, 10, sha256(new byte[10]), new ByteArrayInputStream(chunk)));
+
+		assertEquals(10, uploadSessionService.getSession(uploadId).getReceivedBytes());
+		assertEquals(10, Files.size(partFile(uploadId)));
+	}
+
+	@Test
+	void rejectsOversizedChunk() throws Exception {
+		byte[] content = jpeg(40);
+		String uploadId = create(content.length);
+
+		// max-chunk-size 16 byte
+		assertThrows(InvalidRequestException.class, () -> append(uploadId, 0, content, 0, 17));
+		assertEquals(0, Files.size(partFile(uploadId)));
+
+		// Kalan boyuttan büyük son parça da reddedilir
+		append(uploadId, 0, content, 0, 16);
+		append(uploadId, 16, content, 16, 32);
+		assertThrows(InvalidRequestException.class, () -> uploadSessionService.appendChunk(uploadId, 32,
+				sha256(Arrays.copyOf(Arrays.copyOfRange(content, 32, 40), 9)),
+				new ByteArrayInputStream(Arrays.copyOf(Arrays.copyOfRange(content, 32, 40), 9))));
+		assertEquals(32, uploadSessionService.getSession(uploadId).getReceivedBytes());
+		assertEquals(32, Files.size(partFile(uploadId)));
+	}
+
+	@Test
+	void resumesAfterPartialWrite() throws Exception {
+		byte[] content = jpeg(20);
+		String uploadId = create(content.length);
+		append(uploadId, 0, content, 0, 10);
+
+		// Bağlantı parçanın ortasında koptu: yazılan byte'lar onaylanmaz
+		InputStream interrupted = new InputStream() {
+			private final InputStream delegate = new ByteArrayInputStream(content, 10, 6);
+
+			@Override
+			public int read() throws IOException {
+				int next = delegate.read();
+				if (next == -1) {
+					throw new IOException("Connection reset");
+				}
+				return next;
+			}
+
+			@Override
+			public int read(byte[] buffer, int off, int len) throws IOException {
+				int read = delegate.read(buffer, off, len);
+				if (read == -1) {
+					throw new IOException("Connection reset");
+				}
+				return read;
+			}
+		};
+		assertThrows(FileStorageException.class,
+				() -> uploadSessionService.appendChunk(uploadId, 10, sha256(Arrays.copyOfRange(content, 10, 20)), interrupted));
+		assertEquals(10, uploadSessionService.getSession(uploadId).getReceivedBytes());
+
+		UploadSessionDto session = append(uploadId, 10, content, 10, 20);
+		assertEquals(20, session.getReceivedBytes());
+
+		PhotoDto photo = uploadSessionService.completeSession(uploadId);
+		assertStored(photo, content);
+		assertFalse(Files.exists(partFile(uploadId)));
+	}
+
+	@Test
+	void failedCompletionKeepsSessionForRetry() throws Exception {
+		byte[] content = jpeg(12);
+		String uploadId = create(content.length);
+		append(uploadId, 0, content, 0, 12);
+
+		doThrow(new IllegalStateException("Database unavailable")).doCallRealMethod()
+				.when(photoService).createPhoto(any(), any(), any());
+
+		assertThrows(IllegalStateException.class, () -> uploadSessionService.completeSession(uploadId));
+		assertEquals(12, uploadSessionService.getSession(uploadId).getReceivedBytes());
+		assertArrayEquals(content, Files.readAllBytes(partFile(uploadId)));
+
+		PhotoDto photo = uploadSessionService.completeSession(uploadId);
+		assertStored(photo, content);
+		assertFalse(Files.exists(partFile(uploadId)));
+	}
+
+	private void assertStored(PhotoDto photo, byte[] content) throws IOException {
+		Photo saved = photoRepository.findById(photo.getPhotoId()).orElseThrow();
+		assertEquals(USER_ID, saved.getUserId());
+		assertArrayEquals(content, Files.readAllBytes(photoStorage.resolve(saved.getFilePath())));
+	}
+
+	private String create(long totalSize) {
+		return uploadSessionService.createSession(UploadSessionRequestDto.builder()
+				.photoName("chunked")
+				.userId(USER_ID)
+				.totalSize(totalSize)
+				.build()).getUploadId();
+	}
+
+	private UploadSessionDto append(String uploadId, long offset, byte[] content, int from, int to) {
+		byte[] chunk = Arrays.copyOfRange(content, from, to);
+		return uploadSessionService.appendChunk(uploadId, offset, sha256(chunk), new ByteArrayInputStream(chunk));
+	}
+
+	private Path partFile(String uploadId) {
+		return Paths.get(uploadDir, ".uploads", uploadId + ".part");
+	}
+
+	// Testler arasında içerik özeti çakışmasın diye her dosya farklıdır
+	private byte[] jpeg(int length) {
+		byte[] content = new byte[length];
+		content[0] = (byte) 0xFF;
+		content[1] = (byte) 0xD8;
+		content[2] = (byte) 0xFF;
+		for (int i = 3; i < length; i++) {
+			content[i] = (byte) (System.nanoTime() + i);
+		}
+		return content;
+	}
+
+	private String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
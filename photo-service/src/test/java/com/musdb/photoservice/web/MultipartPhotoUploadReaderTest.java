@@ -0,0 +1,134 @@
+package com.musdb.photoservice.web;
+
+import com.musdb.photoservice.exception.FileStorageException;
+import com.musdb.photoservice.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartPhotoUploadReaderTest {
+	private static final String BOUNDARY = "test-boundary";
+
+	private final MultipartPhotoUploadReader reader = new MultipartPhotoUploadReader(DataSize.ofBytes(64), DataSize.ofKilobytes(1));
+
+	@Test
+	void passesFieldsAndStreamsFileToHandler() throws Exception {
+		byte[] content = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3};
+		MockHttpServletRequest request = request(
+				field("photoName", "Sunset") + field("userId", "7") + field("description", "Bay"),
+				content);
+
+		byte[] received = reader.read(request, dto -> {
+			assertEquals("Sunset", dto.getPhotoName());
+			assertEquals(7L, dto.getUserId());
+			assertEquals("Bay", dto.getDescription());
+			try {
+				return dto.getContent().readAllBytes();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertArrayEquals(content, received);
+	}
+
+	@Test
+	void readsFieldsSentAfterFile() throws Exception {
+		byte[] content = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 4, 5, 6};
+		MockHttpServletRequest request = request("", content, field("photoName", "Late") + field("userId", "9"));
+
+		byte[] received = reader.read(request, dto -> {
+			assertEquals("Late", dto.getPhotoName());
+			assertEquals(9L, dto.getUserId());
+			try {
+				return dto.getContent().readAllBytes();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertArrayEquals(content, received);
+	}
+
+	@Test
+	void rejectsFileWithoutRequiredFields() {
+		MockHttpServletRequest request = request("", new byte[]{1, 2, 3});
+
+		assertThrows(InvalidRequestException.class, () -> reader.read(request, dto -> dto));
+	}
+
+	@Test
+	void rejectsFileLargerThanLimit() {
+		MockHttpServletRequest request = request(field("photoName", "Big") + field("userId", "7"), new byte[65]);
+
+		// Depo okuma hatasını FileStorageException olarak sarar
+		assertThrows(MaxUploadSizeExceededException.class, () -> reader.read(request, dto -> {
+			try {
+				return dto.getContent().readAllBytes();
+			} catch (IOException e) {
+				throw new FileStorageException("Failed to store file: " + e.getMessage(), e);
+			}
+		}));
+	}
+
+	@Test
+	void acceptsFileExactlyAtLimit() throws Exception {
+		MockHttpServletRequest request = request(field("photoName", "Edge") + field("userId", "7"), new byte[64]);
+
+		int length = reader.read(request, dto -> {
+			try {
+				return dto.getContent().readAllBytes().length;
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertEquals(64, length);
+	}
+
+	@Test
+	void rejectsRequestLargerThanLimitBeforeHandler() {
+		MockHttpServletRequest request = request(field("photoName", "Huge") + field("userId", "7"), new byte[2048]);
+
+		// İstek sınırı parçalar okunurken aşılır; hata depo katmanından geçmeden gelir
+		MaxUploadSizeExceededException exception = assertThrows(MaxUploadSizeExceededException.class,
+				() -> reader.read(request, dto -> {
+					throw new AssertionError("handler must not be called");
+				}));
+		assertEquals(1024, exception.getMaxUploadSize());
+	}
+
+	private MockHttpServletRequest request(String fields, byte[] file) {
+		return request(fields, file, "");
+	}
+
+	private MockHttpServletRequest request(String fields, byte[] file, String trailingFields) {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.writeBytes(fields.getBytes(StandardCharsets.UTF_8));
+		body.writeBytes(("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"photo.jpg\"\r\n"
+				+ "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.writeBytes(file);
+		body.writeBytes(("\r\n" + trailingFields + "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/photos");
+		request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+		request.setContent(body.toByteArray());
+		return request;
+	}
+
+	private String field(String name, String value) {
+		return "--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+				+ value + "\r\n";
+	}
+}
@@ -0,0 +1,108 @@
+package com.musdb.photoservice.web;
+
+import com.musdb.photoservice.cache.PhotoBytesCache;
+import com.musdb.photoservice.controller.PhotoController;
+import com.musdb.photoservice.dto.PhotoContentDto;
+import com.musdb.photoservice.service.PhotoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PhotoContentWriterTest {
+	private static final String ETAG = "\"0123abcd\"";
+
+	@TempDir
+	Path tempDir;
+
+	private final byte[] bytes = new byte[100];
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		Path file = Files.write(tempDir.resolve("photo.JPG"), bytes);
+
+		PhotoService photoService = mock(PhotoService.class);
+		when(photoService.getPhotoContent(eq(1L), any())).thenReturn(PhotoContentDto.builder()
+				.photoId(1L)
+				.photoName("photo")
+				.photoExtension("JPG")
+				.storageKey("photo.JPG")
+				.filePath(file)
+				.contentHash("0123abcd")
+				.contentLength(bytes.length)
+				.lastModified(1_700_000_000_000L)
+				.build());
+
+		// Önbellek devre dışı: içerik dosyadan FileChannel ile aktarılır
+		PhotoBytesCache photoBytesCache = mock(PhotoBytesCache.class);
+		PhotoContentWriter writer = new PhotoContentWriter(photoBytesCache);
+
+		mockMvc = MockMvcBuilders.standaloneSetup(new PhotoController(photoService, writer, null)).build();
+	}
+
+	@Test
+	void servesFirstBytes() throws Exception {
+		mockMvc.perform(get("/api/photos/1/view").header(HttpHeaders.RANGE, "bytes=0-9"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/100"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+				.andExpect(content().bytes(Arrays.copyOfRange(bytes, 0, 10)));
+	}
+
+	@Test
+	void servesSuffixRange() throws Exception {
+		mockMvc.perform(get("/api/photos/1/view").header(HttpHeaders.RANGE, "bytes=-5"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+				.andExpect(content().bytes(Arrays.copyOfRange(bytes, 95, 100)));
+	}
+
+	@Test
+	void rejectsRangeStartingPastEnd() throws Exception {
+		mockMvc.perform(get("/api/photos/1/view").header(HttpHeaders.RANGE, "bytes=100-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"))
+				.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void servesRangeWhenIfRangeMatches() throws Exception {
+		mockMvc.perform(get("/api/photos/1/view")
+						.header(HttpHeaders.RANGE, "bytes=0-9")
+						.header(HttpHeaders.IF_RANGE, ETAG))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/100"));
+	}
+
+	@Test
+	void ignoresRangeWhenIfRangeIsStale() throws Exception {
+		mockMvc.perform(get("/api/photos/1/view")
+						.header(HttpHeaders.RANGE, "bytes=0-9")
+						.header(HttpHeaders.IF_RANGE, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+				.andExpect(header().string(HttpHeaders.ETAG, ETAG))
+				.andExpect(content().bytes(bytes));
+	}
+}
@@ -0,0 +1,26 @@
+package com.musdb.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Profil önbelleği; boyut ve süre sınırları user.cache.profiles.spec (Caffeine spec) ile ayarlanır.
+// Silmeler commit sonrasına ertelenir; commit öncesinde yapılan bir okuma eski veriyi önbelleğe alsa bile silinir.
+// Hit/miss istatistikleri actuator'da cache.gets metriği olarak yayınlanır.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USER_PROFILES = "userProfiles";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${user.cache.profiles.spec}") String profilesSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USER_PROFILES);
+        cacheManager.setCacheSpecification(profilesSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,34 @@
+package com.musdb.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportConfig {
+    @Value("${user.import.hash-threads:0}")
+    private int hashThreads;
+
+    // BCrypt CPU yoğun olduğu için virtual thread yerine sabit boyutlu platform thread havuzu kullanılır.
+    // Kuyruk sınırı içe aktarma hattındaki bekleyen parti sınırıdır, havuz ayrıca sınırlanmaz
+    @Bean
+    public ThreadPoolTaskExecutor userImportHashExecutor() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("user-import-hash-");
+        return executor;
+    }
+
+    // Aynı anda tek içe aktarma çalışır: biri manifesti okur, diğeri partileri yazar
+    @Bean
+    public ThreadPoolTaskExecutor userImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("user-import-");
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.musdb.userservice.controller;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FeedItemDto;
+import com.musdb.userservice.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users/{userId}/feed")
+public class FeedController {
+    private final FeedService feedService;
+
+    @Autowired
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    // Takip edilen hesapların fotoğrafları, yeniden eskiye
+    @GetMapping
+    @PreAuthorize("@userSecurity.isUserSelf(#userId)")
+    public ResponseEntity<CursorPageDto<FeedItemDto>> getFeed(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(feedService.getFeed(userId, cursor, limit));
+    }
+}
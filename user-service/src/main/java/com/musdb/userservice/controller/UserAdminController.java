@@ -0,0 +1,77 @@
+package com.musdb.userservice.controller;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.ImportJobDto;
+import com.musdb.userservice.dto.ImportRequestDto;
+import com.musdb.userservice.dto.OutboxEventDto;
+import com.musdb.userservice.service.OutboxService;
+import com.musdb.userservice.service.UserImportService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/admin")
+public class UserAdminController {
+    private final OutboxService outboxService;
+    private final UserImportService userImportService;
+
+    @Autowired
+    public UserAdminController(OutboxService outboxService, UserImportService userImportService) {
+        this.outboxService = outboxService;
+        this.userImportService = userImportService;
+    }
+
+    // Yayınlanan olaylar retention süresince buradan cursor ile tekrar okunabilir
+    @GetMapping("/events")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CursorPageDto<OutboxEventDto>> getEvents(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(outboxService.getEvents(cursor, limit));
+    }
+
+    // after'dan sonraki olaylar broker'a tekrar gönderilir
+    @PostMapping("/events/replay")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Integer>> replayEvents(@RequestParam(value = "after", required = false) Long after) {
+        return ResponseEntity.ok(Map.of("requeued", outboxService.replayAfter(after)));
+    }
+
+    // İçe aktarma arka planda çalışır; ilerleme ve throughput raporu GET /imports/{jobId} ile izlenir
+    @PostMapping("/imports")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> startImport(@Valid @RequestBody ImportRequestDto importRequest) {
+        return new ResponseEntity<>(userImportService.startImport(importRequest), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/imports")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<ImportJobDto>> getImports() {
+        return ResponseEntity.ok(userImportService.getImports());
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable Long jobId) {
+        return ResponseEntity.ok(userImportService.getImport(jobId));
+    }
+
+    @PostMapping("/imports/{jobId}/resume")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> resumeImport(@PathVariable Long jobId) {
+        return new ResponseEntity<>(userImportService.resumeImport(jobId), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/imports/{jobId}/cancel")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportJobDto> cancelImport(@PathVariable Long jobId) {
+        return ResponseEntity.ok(userImportService.cancelImport(jobId));
+    }
+}
@@ -1,8 +1,15 @@
 package com.musdb.userservice.controller;
 
+import com.musdb.userservice.dto.BatchLookupRequestDto;
+import com.musdb.userservice.dto.BatchLookupResultDto;
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FollowBatchRequestDto;
+import com.musdb.userservice.dto.FollowBatchResultDto;
+import com.musdb.userservice.dto.FollowingLookupRequestDto;
 import com.musdb.userservice.dto.UserDto;
 import com.musdb.userservice.dto.UserRegistrationDto;
 import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.security.UserSecurity;
 import com.musdb.userservice.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 //TODO: @RequiredArgsConstructor kullanılabilir.
 
@@ -19,10 +27,12 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final UserSecurity userSecurity;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserSecurity userSecurity) {
         this.userService = userService;
+        this.userSecurity = userSecurity;
     }
 
     @PostMapping("/register")
@@ -36,6 +46,19 @@ public class UserController {
         return new ResponseEntity<>(userService.getUserById(userId), HttpStatus.OK);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BatchLookupResultDto<UserDto>> getUsersByIds(@RequestBody BatchLookupRequestDto request) {
+        BatchLookupResultDto<UserDto> result = userService.getUsersByIds(request.getIds());
+        // Başka kullanıcıların e-posta ve doğum tarihi admin olmayanlara dönmez
+        return ResponseEntity.ok(BatchLookupResultDto.<UserDto>builder()
+                .items(result.getItems().stream()
+                        .map(user -> userSecurity.isAdminOrSelf(user.getUserId()) ? user : withoutPrivateFields(user))
+                        .toList())
+                .missingIds(result.getMissingIds())
+                .build());
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<List<UserDto>> getAllUsers() {
@@ -50,8 +73,11 @@ public class UserController {
 
     @GetMapping("/search")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<UserDto>> searchUser(@RequestParam String query) {
-        return ResponseEntity.ok(userService.searchUsers(query));
+    public ResponseEntity<CursorPageDto<UserDto>> searchUser(
+            @RequestParam String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userService.searchUsers(query, cursor, limit));
     }
 
     @PutMapping("/{userId}")
@@ -79,16 +105,35 @@ public class UserController {
         return ResponseEntity.ok(userService.unfollowUser(userId, followingUserId));
     }
 
+    @PostMapping("/{userId}/follow/batch")
+    @PreAuthorize("@userSecurity.isUserSelf(#userId)")
+    public ResponseEntity<FollowBatchResultDto> applyFollowBatch(@PathVariable Long userId, @RequestBody FollowBatchRequestDto request) {
+        return ResponseEntity.ok(userService.applyFollowBatch(userId, request));
+    }
+
+    @PostMapping("/{userId}/following/lookup")
+    @PreAuthorize("@userSecurity.isUserSelf(#userId)")
+    public ResponseEntity<Map<Long, Boolean>> getFollowingStatus(@PathVariable Long userId,
+                                                                 @Valid @RequestBody FollowingLookupRequestDto request) {
+        return ResponseEntity.ok(userService.getFollowingStatus(userId, request.getUserIds()));
+    }
+
     @PostMapping("/{userId}/followers")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<UserDto>> getFollowers(@PathVariable Long userId) {
-        return ResponseEntity.ok(userService.getFollowers(userId));
+    public ResponseEntity<CursorPageDto<UserDto>> getFollowers(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userService.getFollowers(userId, cursor, limit));
     }
 
     @PostMapping("/{userId}/followings")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<UserDto>> getFollowings(@PathVariable Long userId) {
-        return ResponseEntity.ok(userService.getFollowings(userId));
+    public ResponseEntity<CursorPageDto<UserDto>> getFollowings(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userService.getFollowings(userId, cursor, limit));
     }
 
     @GetMapping("/{userId}/followers-count")
@@ -102,4 +147,19 @@ public class UserController {
     public ResponseEntity<Long> getFollowingCount(@PathVariable Long userId) {
         return ResponseEntity.ok(userService.getFollowingCount(userId));
     }
+
+    private UserDto withoutPrivateFields(UserDto user) {
+        return UserDto.builder()
+                .userId(user.getUserId())
+                .name(user.getName())
+                .surname(user.getSurname())
+                .description(user.getDescription())
+                .profilePhotoId(user.getProfilePhotoId())
+                .userType(user.getUserType())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .followerCount(user.getFollowerCount())
+                .followingCount(user.getFollowingCount())
+                .build();
+    }
 }
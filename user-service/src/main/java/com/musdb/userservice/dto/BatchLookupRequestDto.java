@@ -0,0 +1,10 @@
+package com.musdb.userservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchLookupRequestDto {
+    private List<Long> ids;
+}
@@ -0,0 +1,20 @@
+package com.musdb.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Fotoğrafın ayrıntıları photo-service'in toplu sorgusundan alınır; akışta sadece sıralama ve gösterim için gerekenler tutulur
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedItemDto {
+    private Long photoId;
+    private Long userId;
+    private String photoName;
+    private LocalDateTime createdAt;
+}
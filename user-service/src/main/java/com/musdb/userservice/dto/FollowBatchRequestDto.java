@@ -0,0 +1,12 @@
+package com.musdb.userservice.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FollowBatchRequestDto {
+    private List<Long> follow = new ArrayList<>();
+    private List<Long> unfollow = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.musdb.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Sadece durumu gerçekten değişen kullanıcılar listelenir; zaten takip edilenler ve kendisi atlanır
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowBatchResultDto {
+    private List<Long> followed;
+    private List<Long> unfollowed;
+    private List<Long> notFound;
+}
@@ -0,0 +1,12 @@
+package com.musdb.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FollowingLookupRequestDto {
+    @NotEmpty(message = "User ids are required")
+    private List<Long> userIds;
+}
@@ -0,0 +1,11 @@
+package com.musdb.userservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class ImportRequestDto {
+    // user.import.dir altındaki .csv veya .ndjson dosyası
+    @NotBlank(message = "Manifest is required")
+    private String manifest;
+}
@@ -0,0 +1,22 @@
+package com.musdb.userservice.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDto {
+    private Long eventId;
+    private String topic;
+    private String key;
+    private JsonNode payload;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
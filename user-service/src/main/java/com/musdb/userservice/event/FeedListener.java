@@ -0,0 +1,28 @@
+package com.musdb.userservice.event;
+
+import com.musdb.userservice.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Bellekteki akışlar yalnızca commit edilen değişikliklerle güncellenir
+@Component
+public class FeedListener {
+    private final FeedService feedService;
+
+    @Autowired
+    public FeedListener(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFollowChanged(FollowChangedEvent event) {
+        feedService.onFollowChanged(event.getUserId(), event.getFollowingUserId(), event.isFollowing());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        feedService.onUserDeleted(event.getUserId());
+    }
+}
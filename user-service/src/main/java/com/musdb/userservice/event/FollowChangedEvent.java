@@ -0,0 +1,12 @@
+package com.musdb.userservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FollowChangedEvent {
+    private Long userId;
+    private Long followingUserId;
+    private boolean following;
+}
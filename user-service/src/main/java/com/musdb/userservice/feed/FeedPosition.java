@@ -0,0 +1,18 @@
+package com.musdb.userservice.feed;
+
+import com.musdb.userservice.dto.FeedItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// Akıştaki sıralama anahtarı: yeniden eskiye createdAt, aynı anda yüklenenler arasında photoId.
+// photoId tek başına yükleme sırasını vermez (toplu içe aktarma, replay, farklı sequence blokları)
+public record FeedPosition(LocalDateTime createdAt, Long photoId) {
+    public static final Comparator<FeedPosition> NEWEST_FIRST = Comparator.comparing(FeedPosition::createdAt)
+            .thenComparing(FeedPosition::photoId)
+            .reversed();
+
+    public static FeedPosition of(FeedItemDto item) {
+        return new FeedPosition(item.getCreatedAt(), item.getPhotoId());
+    }
+}
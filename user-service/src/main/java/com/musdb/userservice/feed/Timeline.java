@@ -0,0 +1,93 @@
+package com.musdb.userservice.feed;
+
+import com.musdb.userservice.dto.FeedItemDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// (createdAt, photoId)'ye göre yeniden eskiye, en fazla capacity kayıt tutan liste; dolunca en eski kayıt düşer.
+// Aynı fotoğraf tekrar eklenirse tek kayıt kalır, olayların tekrar teslim edilmesi zararsızdır.
+public class Timeline {
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<FeedPosition, FeedItemDto> items = new TreeMap<>(FeedPosition.NEWEST_FIRST);
+    private final Map<Long, FeedPosition> positions = new HashMap<>();
+
+    public Timeline(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(FeedItemDto item) {
+        addAll(List.of(item));
+    }
+
+    public void addAll(Collection<FeedItemDto> newItems) {
+        lock.lock();
+        try {
+            for (FeedItemDto item : newItems) {
+                FeedPosition position = FeedPosition.of(item);
+                FeedPosition previous = positions.put(item.getPhotoId(), position);
+                if (previous != null) {
+                    items.remove(previous);
+                }
+                items.put(position, item);
+            }
+            while (items.size() > capacity) {
+                positions.remove(items.pollLastEntry().getKey().photoId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long photoId) {
+        lock.lock();
+        try {
+            FeedPosition position = positions.remove(photoId);
+            if (position != null) {
+                items.remove(position);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeAuthor(Long userId) {
+        lock.lock();
+        try {
+            items.values().removeIf(item -> {
+                if (!userId.equals(item.getUserId())) {
+                    return false;
+                }
+                positions.remove(item.getPhotoId());
+                return true;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // before'dan eski ilk limit kayıt (before null ise en yeniden başlar); kapasite sabit olduğu için maliyet de sabittir
+    public List<FeedItemDto> page(FeedPosition before, int limit) {
+        lock.lock();
+        try {
+            NavigableMap<FeedPosition, FeedItemDto> older = before == null ? items : items.tailMap(before, false);
+            List<FeedItemDto> page = new ArrayList<>(Math.min(limit, older.size()));
+            for (FeedItemDto item : older.values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(item);
+            }
+            return page;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.musdb.userservice.feed;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.musdb.userservice.dto.FeedItemDto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// Akışların bellekteki deposu. Sayı ve boyut sınırlıdır; uzun süre okunmayan akışlar düşer, düşen ya da hiç kurulmamış akış
+// okunurken loader ile feed_posts tablosundan yeniden kurulur. Akışlar max-staleness süresinden sonra da yeniden kurulur;
+// birden fazla instance olayları paylaşarak tükettiği için bir instance'ın bellekteki akışı diğerlerinin itmelerini görmez.
+// - timelines: kullanıcının takip ettiği normal hesaplardan itilen (push) fotoğraflar
+// - authorPosts: her yazarın son fotoğrafları; yüksek takipçili hesaplar okuma anında buradan çekilir (pull)
+// - pulledAuthors: kullanıcının takip ettiği yüksek takipçili hesaplar, ttl süresince önbellekte
+@Component
+public class TimelineStore {
+    private final Cache<Long, Timeline> timelines;
+    private final Cache<Long, Timeline> authorPosts;
+    private final Cache<Long, List<Long>> pulledAuthors;
+
+    private final int timelineSize;
+    private final int authorPostsSize;
+
+    public TimelineStore(@Value("${user.feed.timeline-size:300}") int timelineSize,
+                         @Value("${user.feed.author-posts-size:100}") int authorPostsSize,
+                         @Value("${user.feed.max-timelines:50000}") long maxTimelines,
+                         @Value("${user.feed.max-authors:50000}") long maxAuthors,
+                         @Value("${user.feed.idle-ttl:P1D}") Duration idleTtl,
+                         @Value("${user.feed.max-staleness:PT10M}") Duration maxStaleness,
+                         @Value("${user.feed.pulled-authors-ttl:PT10M}") Duration pulledAuthorsTtl) {
+        this.timelineSize = timelineSize;
+        this.authorPostsSize = authorPostsSize;
+        this.timelines = Caffeine.newBuilder().maximumSize(maxTimelines)
+                .expireAfterAccess(idleTtl).expireAfterWrite(maxStaleness).build();
+        this.authorPosts = Caffeine.newBuilder().maximumSize(maxAuthors)
+                .expireAfterAccess(idleTtl).expireAfterWrite(maxStaleness).build();
+        this.pulledAuthors = Caffeine.newBuilder().maximumSize(maxTimelines).expireAfterWrite(pulledAuthorsTtl).build();
+    }
+
+    public Timeline timeline(Long userId, Function<Long, List<FeedItemDto>> loader) {
+        return timelines.get(userId, id -> load(timelineSize, loader.apply(id)));
+    }
+
+    public Timeline existingTimeline(Long userId) {
+        return timelines.getIfPresent(userId);
+    }
+
+    public Timeline authorPosts(Long userId, Function<Long, List<FeedItemDto>> loader) {
+        return authorPosts.get(userId, id -> load(authorPostsSize, loader.apply(id)));
+    }
+
+    public Timeline existingAuthorPosts(Long userId) {
+        return authorPosts.getIfPresent(userId);
+    }
+
+    public List<Long> pulledAuthors(Long userId, Function<Long, List<Long>> loader) {
+        return pulledAuthors.get(userId, loader);
+    }
+
+    public void invalidatePulledAuthors(Long userId) {
+        pulledAuthors.invalidate(userId);
+    }
+
+    public int getTimelineSize() {
+        return timelineSize;
+    }
+
+    public int getAuthorPostsSize() {
+        return authorPostsSize;
+    }
+
+    public void removeUser(Long userId) {
+        timelines.invalidate(userId);
+        authorPosts.invalidate(userId);
+        pulledAuthors.invalidate(userId);
+    }
+
+    private Timeline load(int capacity, List<FeedItemDto> items) {
+        Timeline timeline = new Timeline(capacity);
+        timeline.addAll(items);
+        return timeline;
+    }
+}
@@ -0,0 +1,13 @@
+package com.musdb.userservice.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// lastRecord, parti yazıldığında checkpoint olarak saklanır
+@Data
+@AllArgsConstructor
+public class ImportBatch<P> {
+    private long firstRecord;
+    private long lastRecord;
+    private P prepared;
+}
@@ -0,0 +1,172 @@
+package com.musdb.userservice.importer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Manifest aşamalı işlenir: okuma (çağıran thread) -> hazırlama (prepareExecutor, paralel) -> yazma (writerExecutor, tek thread).
+// Hazırlanan partiler sıra bozulmadan yazılır. Bekleyen parti sayısı maxPendingBatches ile sınırlıdır;
+// yazma geride kalırsa okuma bekler, bellek kullanımı manifest boyutundan bağımsızdır.
+// importer paketinin aynısı photo-service'te de vardır; değişiklik iki kopyaya birlikte yapılır, ImportPipelineTest iki serviste de çalışır.
+public class ImportPipeline<P> {
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final Executor prepareExecutor;
+    private final Executor writerExecutor;
+
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong prepareNanos = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+
+    public ImportPipeline(int batchSize, int maxPendingBatches, Executor prepareExecutor, Executor writerExecutor) {
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.prepareExecutor = prepareExecutor;
+        this.writerExecutor = writerExecutor;
+    }
+
+    // checkpoint'e kadar olan kayıtlar atlanır. Okuma ya da yazma hatası buradan fırlatılır;
+    // yazılamayan hazırlanmış partiler discard'a verilir.
+    public void run(ManifestReader reader, long checkpoint,
+                    Function<List<ManifestRecord>, P> prepare,
+                    Consumer<ImportBatch<P>> writer,
+                    Consumer<P> discard,
+                    BooleanSupplier cancelled) throws IOException {
+        BlockingQueue<CompletableFuture<ImportBatch<P>>> pending = new ArrayBlockingQueue<>(maxPendingBatches);
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> drain(pending, writer), writerExecutor);
+
+        Exception readError = null;
+        try {
+            List<ManifestRecord> records = new ArrayList<>(batchSize);
+            long startedAt = System.nanoTime();
+            ManifestRecord record;
+            while (!cancelled.getAsBoolean() && !writing.isDone() && (record = reader.next()) != null) {
+                if (record.getNumber() <= checkpoint) {
+                    continue;
+                }
+
+                records.add(record);
+                if (records.size() == batchSize) {
+                    parseNanos.addAndGet(System.nanoTime() - startedAt);
+                    enqueue(pending, prepareAsync(records, prepare), writing, discard);
+                    records = new ArrayList<>(batchSize);
+                    startedAt = System.nanoTime();
+                }
+            }
+
+            if (!records.isEmpty() && !cancelled.getAsBoolean()) {
+                parseNanos.addAndGet(System.nanoTime() - startedAt);
+                enqueue(pending, prepareAsync(records, prepare), writing, discard);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Kuyruktaki partiler yine de yazılır, checkpoint okunabilen son kayda kadar ilerler
+            readError = e;
+        }
+
+        enqueue(pending, CompletableFuture.completedFuture(null), writing, discard);
+        try {
+            writing.join();
+        } catch (CompletionException e) {
+            discardPending(pending, discard);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (readError instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (readError != null) {
+            throw (RuntimeException) readError;
+        }
+    }
+
+    public long getParseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseNanos.get());
+    }
+
+    public long getPrepareMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(prepareNanos.get());
+    }
+
+    public long getWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(writeNanos.get());
+    }
+
+    private CompletableFuture<ImportBatch<P>> prepareAsync(List<ManifestRecord> records, Function<List<ManifestRecord>, P> prepare) {
+        long first = records.get(0).getNumber();
+        long last = records.get(records.size() - 1).getNumber();
+        return CompletableFuture.supplyAsync(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                return new ImportBatch<>(first, last, prepare.apply(records));
+            } finally {
+                prepareNanos.addAndGet(System.nanoTime() - startedAt);
+            }
+        }, prepareExecutor);
+    }
+
+    // Kuyruk doluysa bekler (back-pressure); yazma durduysa beklemez
+    private void enqueue(BlockingQueue<CompletableFuture<ImportBatch<P>>> pending,
+                         CompletableFuture<ImportBatch<P>> batch,
+                         CompletableFuture<Void> writing,
+                         Consumer<P> discard) {
+        try {
+            while (!pending.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (writing.isDone()) {
+                    batch.thenAccept(prepared -> {
+                        if (prepared != null) {
+                            discard.accept(prepared.getPrepared());
+                        }
+                    });
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+
+    private void drain(BlockingQueue<CompletableFuture<ImportBatch<P>>> pending, Consumer<ImportBatch<P>> writer) {
+        try {
+            while (true) {
+                ImportBatch<P> batch = pending.take().join();
+                if (batch == null) {
+                    return;
+                }
+
+                long startedAt = System.nanoTime();
+                writer.accept(batch);
+                writeNanos.addAndGet(System.nanoTime() - startedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+
+    private void discardPending(BlockingQueue<CompletableFuture<ImportBatch<P>>> pending, Consumer<P> discard) {
+        CompletableFuture<ImportBatch<P>> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                ImportBatch<P> batch = future.join();
+                if (batch != null) {
+                    discard.accept(batch.getPrepared());
+                }
+            } catch (CompletionException e) {
+                // Hazırlanamayan parti, atılacak bir şey yok
+            }
+        }
+    }
+}
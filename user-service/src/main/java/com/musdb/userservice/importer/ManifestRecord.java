@@ -0,0 +1,20 @@
+package com.musdb.userservice.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+// number 1'den başlar ve checkpoint olarak kullanılır; okunamayan satırlarda fields boş, error doludur
+@Data
+@AllArgsConstructor
+public class ManifestRecord {
+    private long number;
+    private Map<String, String> fields;
+    private String error;
+
+    public String get(String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,67 @@
+package com.musdb.userservice.job;
+
+import com.musdb.userservice.config.CacheConfig;
+import com.musdb.userservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Takipçi sayaçlarında oluşabilecek sapmaları (elle yapılan veri düzeltmeleri, yarım kalan işlemler) onarır.
+// Kullanıcılar id aralıklarıyla işlenir, her aralık kendi transaction'ında çalışır ve kilitler kısa tutulur.
+@Component
+@ConditionalOnProperty(prefix = "user.followers.reconciliation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FollowerCountReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(FollowerCountReconciliationJob.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    @Value("${user.followers.reconciliation.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    public FollowerCountReconciliationJob(UserRepository userRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+    }
+
+    @Scheduled(initialDelayString = "${user.followers.reconciliation.initial-delay:PT10M}",
+            fixedDelayString = "${user.followers.reconciliation.interval:PT6H}")
+    public void reconcile() {
+        Long maxUserId = userRepository.findMaxUserId();
+        if (maxUserId == null) {
+            return;
+        }
+
+        int repaired = 0;
+        for (long fromId = 1; fromId <= maxUserId; fromId += batchSize) {
+            long from = fromId;
+            long to = fromId + batchSize - 1;
+            Integer count = transactionTemplate.execute(status ->
+                    userRepository.reconcileFollowerCounts(from, to) + userRepository.reconcileFollowingCounts(from, to));
+            repaired += count == null ? 0 : count;
+        }
+
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted follower/following counters", repaired);
+
+            // Hangi profillerin düzeldiği bilinmediği için önbellek tamamen boşaltılır; nadir görülen bir durum
+            Cache profiles = cacheManager.getCache(CacheConfig.USER_PROFILES);
+            if (profiles != null) {
+                profiles.clear();
+            }
+        }
+    }
+}
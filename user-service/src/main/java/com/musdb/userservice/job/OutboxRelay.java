@@ -0,0 +1,119 @@
+package com.musdb.userservice.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musdb.userservice.messaging.MessagePublisher;
+import com.musdb.userservice.model.OutboxEvent;
+import com.musdb.userservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// outbox_events tablosundaki yayınlanmamış olayları partiler halinde MessagePublisher'a aktarır.
+// Parti SKIP LOCKED ile alınır ve yayınlanan olaylar aynı transaction'da işaretlenir; en az bir kez teslim edilir,
+// yayın sonrası commit başarısız olursa olay tekrar gönderilir. Yayın hatasında parti orada kesilir, sıra korunur.
+@Component
+@ConditionalOnProperty(prefix = "user.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessagePublisher messagePublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong publishedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${user.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${user.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       MessagePublisher messagePublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messagePublisher = messagePublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${user.outbox.relay.initial-delay:PT5S}",
+            fixedDelayString = "${user.outbox.relay.interval:PT1S}")
+    public void relay() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == batchSize);
+    }
+
+    // Yayınlanmış olaylar retention süresince replay için saklanır
+    @Scheduled(initialDelayString = "${user.outbox.cleanup.initial-delay:PT10M}",
+            fixedDelayString = "${user.outbox.cleanup.interval:PT1H}")
+    public void removePublished() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Removed {} published outbox events", removed);
+        }
+    }
+
+    private int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findUnpublishedForUpdate(Limit.of(batchSize));
+            LocalDateTime now = LocalDateTime.now();
+
+            int count = 0;
+            for (OutboxEvent event : events) {
+                try {
+                    messagePublisher.publish(applicationName + "-" + event.getEventId(), event.getTopic(),
+                            event.getMessageKey(), objectMapper.readTree(event.getPayload()));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    failedTotal.incrementAndGet();
+                    log.warn("Could not publish outbox event {} to {}: {}", event.getEventId(), event.getTopic(), e.getMessage());
+                    break;
+                }
+
+                event.setPublishedAt(now);
+                count++;
+            }
+            return count;
+        });
+
+        int count = published == null ? 0 : published;
+        publishedTotal.addAndGet(count);
+        return count;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.outbox.published", publishedTotal, AtomicLong::get)
+                .description("Outbox events handed to the message publisher")
+                .register(registry);
+        FunctionCounter.builder("user.outbox.failures", failedTotal, AtomicLong::get)
+                .description("Failed outbox publish attempts")
+                .register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.musdb.userservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Testler için; yayınlanan mesajları bellekte tutar, hiçbir yere göndermez
+@Component
+@ConditionalOnProperty(prefix = "messaging", name = "publisher", havingValue = "memory")
+public class InMemoryMessagePublisher implements MessagePublisher {
+    private final List<PublishedMessage> messages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String messageId, String topic, String key, Object payload) {
+        messages.add(new PublishedMessage(messageId, topic, key, payload));
+    }
+
+    public List<PublishedMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class PublishedMessage {
+        private String messageId;
+        private String topic;
+        private String key;
+        private Object payload;
+    }
+}
@@ -0,0 +1,10 @@
+package com.musdb.userservice.messaging;
+
+// Aynı mesaj birden fazla kez teslim edilebilir; handle tekrar çağrıldığında aynı sonucu vermelidir
+public interface MessageHandler<T> {
+    String getTopic();
+
+    Class<T> getPayloadType();
+
+    void handle(T payload);
+}
@@ -0,0 +1,6 @@
+package com.musdb.userservice.messaging;
+
+// messageId aynı mesaj tekrar yayınlandığında da değişmez; tüketiciler tekrarları bununla ayıklayabilir
+public interface MessagePublisher {
+    void publish(String messageId, String topic, String key, Object payload);
+}
@@ -0,0 +1,30 @@
+package com.musdb.userservice.messaging;
+
+import com.musdb.userservice.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PhotoDeletedMessageHandler implements MessageHandler<PhotoDeletedMessage> {
+    private final FeedService feedService;
+
+    @Autowired
+    public PhotoDeletedMessageHandler(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    @Override
+    public String getTopic() {
+        return Topics.PHOTO_DELETED;
+    }
+
+    @Override
+    public Class<PhotoDeletedMessage> getPayloadType() {
+        return PhotoDeletedMessage.class;
+    }
+
+    @Override
+    public void handle(PhotoDeletedMessage payload) {
+        feedService.onPhotoDeleted(payload.getPhotoId(), payload.getUserId());
+    }
+}
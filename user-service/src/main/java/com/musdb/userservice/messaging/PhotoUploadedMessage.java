@@ -0,0 +1,18 @@
+package com.musdb.userservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// photo-service'in photo.uploaded olayındaki PhotoDto'nun akış için gereken alanları
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadedMessage {
+    private Long photoId;
+    private Long userId;
+    private String photoName;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.musdb.userservice.messaging;
+
+import com.musdb.userservice.dto.FeedItemDto;
+import com.musdb.userservice.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PhotoUploadedMessageHandler implements MessageHandler<PhotoUploadedMessage> {
+    private final FeedService feedService;
+
+    @Autowired
+    public PhotoUploadedMessageHandler(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    @Override
+    public String getTopic() {
+        return Topics.PHOTO_UPLOADED;
+    }
+
+    @Override
+    public Class<PhotoUploadedMessage> getPayloadType() {
+        return PhotoUploadedMessage.class;
+    }
+
+    @Override
+    public void handle(PhotoUploadedMessage payload) {
+        feedService.onPhotoUploaded(FeedItemDto.builder()
+                .photoId(payload.getPhotoId())
+                .userId(payload.getUserId())
+                .photoName(payload.getPhotoName())
+                .createdAt(payload.getCreatedAt())
+                .build());
+    }
+}
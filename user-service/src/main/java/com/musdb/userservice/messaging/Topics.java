@@ -0,0 +1,16 @@
+package com.musdb.userservice.messaging;
+
+// Yayınlayan ve tüketen servislerdeki Topics sabitleri ile aynı olmalıdır
+public final class Topics {
+    public static final String USER_REGISTERED = "user.registered";
+    public static final String USER_UPDATED = "user.updated";
+    public static final String USER_DELETED = "user.deleted";
+    public static final String USER_FOLLOWED = "user.followed";
+    public static final String USER_UNFOLLOWED = "user.unfollowed";
+
+    public static final String PHOTO_UPLOADED = "photo.uploaded";
+    public static final String PHOTO_DELETED = "photo.deleted";
+
+    private Topics() {
+    }
+}
@@ -0,0 +1,15 @@
+package com.musdb.userservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletedMessage {
+    private Long userId;
+    private LocalDateTime deletedAt;
+}
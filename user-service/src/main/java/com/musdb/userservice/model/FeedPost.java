@@ -0,0 +1,37 @@
+package com.musdb.userservice.model;
+
+import com.musdb.userservice.dto.FeedItemDto;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// photo.uploaded olaylarından yazarın son fotoğrafları; bellekteki akışlar kaybolduğunda buradan yeniden kurulur
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "feed_posts", indexes = {
+        @Index(name = "idx_feed_posts_author_created_at", columnList = "author_user_id, created_at DESC, photo_id DESC")
+})
+public class FeedPost {
+    @Id
+    @Column(name = "photo_id")
+    private Long photoId;
+
+    @Column(name = "author_user_id", nullable = false)
+    private Long authorUserId;
+
+    @Column(name = "photo_name")
+    private String photoName;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public FeedPost(FeedItemDto item) {
+        this.photoId = item.getPhotoId();
+        this.authorUserId = item.getUserId();
+        this.photoName = item.getPhotoName();
+        this.createdAt = item.getCreatedAt();
+    }
+}
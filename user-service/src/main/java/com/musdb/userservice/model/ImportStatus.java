@@ -0,0 +1,8 @@
+package com.musdb.userservice.model;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
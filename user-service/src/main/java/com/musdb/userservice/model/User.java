@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -12,10 +13,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+// PostgreSQL'de index is_delete = false ile kısmidir (db/migration)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_active_user_type_user_id", columnList = "user_type, user_id")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY, Hibernate'in insert batch'ini kapatır; id'ler sequence'tan 50'lik bloklar halinde alınır
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Long userId;
 
@@ -34,6 +40,15 @@ public class User {
     @Column(name = "is_delete")
     private Boolean isDelete;
 
+    // Sayaçlar sadece UserRepository'deki atomik güncellemelerle değişir, entity kaydedilirken yazılmaz
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private Long followerCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private Long followingCount = 0L;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
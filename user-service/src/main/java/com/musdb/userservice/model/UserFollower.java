@@ -11,17 +11,22 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user_follower")
+// PostgreSQL şeması db/migration altındaki Flyway script'lerinden gelir; buradaki index tanımları H2 test şeması içindir
+@Table(name = "user_follower", indexes = {
+        // Birincil anahtar (following_user_id, user_id) sırasındadır; takip edilenler sorguları user_id ile başlar
+        @Index(name = "idx_user_follower_following_user_id_active", columnList = "following_user_id, is_still_following, user_id"),
+        @Index(name = "idx_user_follower_user_id_active", columnList = "user_id, is_still_following, following_user_id")
+})
 public class UserFollower {
     @EmbeddedId
     private UserFollowerKey id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("userId")
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("followingUserId")
     @JoinColumn(name = "following_user_id")
     private User followingUser;
@@ -0,0 +1,45 @@
+package com.musdb.userservice.repository;
+
+import com.musdb.userservice.dto.FeedItemDto;
+import com.musdb.userservice.model.FeedPost;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeedPostRepository extends JpaRepository<FeedPost, Long> {
+    // Bellekteki akış yeniden kurulurken; fotoğrafları itilen (eşiğin altında takipçisi olan) takip edilen yazarlar
+    @Query("select new com.musdb.userservice.dto.FeedItemDto(p.photoId, p.authorUserId, p.photoName, p.createdAt) " +
+            "from UserFollower f join f.followingUser u, FeedPost p " +
+            "where f.id.userId = :userId and f.isStillFollowing = true and u.isDelete = false " +
+            "and u.followerCount < :threshold and p.authorUserId = u.userId " +
+            "order by p.createdAt desc, p.photoId desc")
+    List<FeedItemDto> findPushedFeedItems(@Param("userId") Long userId,
+                                          @Param("threshold") long threshold,
+                                          Limit limit);
+
+    @Query("select new com.musdb.userservice.dto.FeedItemDto(p.photoId, p.authorUserId, p.photoName, p.createdAt) " +
+            "from FeedPost p where p.authorUserId = :authorUserId " +
+            "order by p.createdAt desc, p.photoId desc")
+    List<FeedItemDto> findRecentByAuthor(@Param("authorUserId") Long authorUserId, Limit limit);
+
+    // Yazar başına yalnızca son keep fotoğraf tutulur
+    @Modifying
+    @Query(value = "delete from feed_posts where author_user_id = :authorUserId and photo_id not in (" +
+            "select photo_id from feed_posts where author_user_id = :authorUserId " +
+            "order by created_at desc, photo_id desc limit :keep)", nativeQuery = true)
+    int trimAuthor(@Param("authorUserId") Long authorUserId, @Param("keep") int keep);
+
+    @Modifying
+    @Query("delete from FeedPost p where p.photoId = :photoId")
+    int deleteByPhotoId(@Param("photoId") Long photoId);
+
+    @Modifying
+    @Query("delete from FeedPost p where p.authorUserId = :authorUserId")
+    int deleteByAuthorUserId(@Param("authorUserId") Long authorUserId);
+}
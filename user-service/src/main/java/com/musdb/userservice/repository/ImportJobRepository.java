@@ -0,0 +1,12 @@
+package com.musdb.userservice.repository;
+
+import com.musdb.userservice.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findTop50ByOrderByJobIdDesc();
+}
@@ -2,8 +2,13 @@ package com.musdb.userservice.repository;
 
 import com.musdb.userservice.model.UserCredential;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,11 @@ public interface UserCredentialRepository extends JpaRepository<UserCredential,
     Optional<UserCredential> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("SELECT c.username FROM UserCredential c WHERE c.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Modifying
+    @Query("UPDATE UserCredential c SET c.password = :password WHERE c.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
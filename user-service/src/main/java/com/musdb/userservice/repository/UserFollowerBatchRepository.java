@@ -0,0 +1,121 @@
+package com.musdb.userservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Toplu takip işlemleri için JDBC batch; her satırın sonucu ayrı döner ve sadece değişen satırlar sayaçlara yansır.
+// Sonuçları okunan batch'ler sadece UPDATE'tir; reWriteBatchedInserts INSERT batch'lerinin satır sonuçlarını siler.
+// Çağıran transaction içinde çalışır, JPA ile aynı bağlantıyı kullanır.
+@Repository
+public class UserFollowerBatchRepository {
+    private static final String INSERT_FOLLOW =
+            "insert into user_follower (user_id, following_user_id, is_still_following, created_at) " +
+            "values (?, ?, true, ?) on conflict do nothing";
+    // H2 (testler) ON CONFLICT desteklemez; eşzamanlı ekleme güvencesi sadece PostgreSQL'de gereklidir
+    private static final String MERGE_FOLLOW =
+            "merge into user_follower t using (select cast(? as bigint) as user_id, cast(? as bigint) as following_user_id, " +
+            "cast(? as timestamp) as created_at) s " +
+            "on t.user_id = s.user_id and t.following_user_id = s.following_user_id " +
+            "when not matched then insert (user_id, following_user_id, is_still_following, created_at) " +
+            "values (s.user_id, s.following_user_id, true, s.created_at)";
+    private static final String START_FOLLOWING =
+            "update user_follower set is_still_following = true " +
+            "where user_id = ? and following_user_id = ? and (is_still_following = false or is_still_following is null)";
+    private static final String STOP_FOLLOWING =
+            "update user_follower set is_still_following = false " +
+            "where user_id = ? and following_user_id = ? and is_still_following = true";
+    private static final String ADJUST_FOLLOWER_COUNT =
+            "update users set follower_count = follower_count + ? where user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertFollowSql;
+
+    @Autowired
+    public UserFollowerBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Pasif satırlar yeniden etkinleştirilir, satırı olmayan hedefler eklenir; durumu değişen hedefler döner
+    public List<Long> follow(Long userId, List<Long> targetIds) {
+        List<Long> changed = changedTargets(targetIds, jdbcTemplate.batchUpdate(START_FOLLOWING, targetIds, targetIds.size(),
+                (ps, targetId) -> {
+                    ps.setLong(1, userId);
+                    ps.setLong(2, targetId);
+                }));
+
+        List<Long> remaining = new ArrayList<>(targetIds);
+        remaining.removeAll(changed);
+        if (remaining.isEmpty()) {
+            return changed;
+        }
+
+        // reWriteBatchedInserts açıkken batch insert'ler satır başına sonuç döndürmez (SUCCESS_NO_INFO);
+        // zaten takip edilen hedefleri yenilerden ayırmak için insert'ler tek tek çalışır
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long targetId : remaining) {
+            if (insertFollow(userId, targetId, now)) {
+                changed.add(targetId);
+            }
+        }
+        return changed;
+    }
+
+    // Satır yoksa ekler; eşzamanlı bir ekleme ile çakışırsa hata vermeden false döner
+    public boolean insertFollow(Long userId, Long targetId, Timestamp createdAt) {
+        return jdbcTemplate.update(insertFollowSql(), ps -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, targetId);
+            ps.setTimestamp(3, createdAt);
+        }) > 0;
+    }
+
+    public List<Long> unfollow(Long userId, List<Long> targetIds) {
+        return changedTargets(targetIds, jdbcTemplate.batchUpdate(STOP_FOLLOWING, targetIds, targetIds.size(),
+                (ps, targetId) -> {
+                    ps.setLong(1, userId);
+                    ps.setLong(2, targetId);
+                }));
+    }
+
+    // Satırlar artan id sırasıyla kilitlenir, eşzamanlı toplu işlemler birbirini kilitlemez
+    public void adjustFollowerCounts(SortedMap<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(ADJUST_FOLLOWER_COUNT, entries, entries.size(),
+                (ps, entry) -> {
+                    ps.setLong(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+
+    private String insertFollowSql() {
+        if (insertFollowSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            insertFollowSql = "PostgreSQL".equals(product) ? INSERT_FOLLOW : MERGE_FOLLOW;
+        }
+        return insertFollowSql;
+    }
+
+    private List<Long> changedTargets(List<Long> targetIds, int[][] results) {
+        List<Long> changed = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : results) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) ve EXECUTE_FAILED (-3) değişiklik anlamına gelmez
+                if (count > 0) {
+                    changed.add(targetIds.get(index));
+                }
+                index++;
+            }
+        }
+        return changed;
+    }
+}
@@ -1,20 +1,65 @@
 package com.musdb.userservice.repository;
 
-import com.musdb.userservice.model.User;
+import com.musdb.userservice.dto.UserDto;
 import com.musdb.userservice.model.UserFollower;
 import com.musdb.userservice.model.UserFollowerKey;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserFollowerRepository extends JpaRepository<UserFollower, UserFollowerKey> {
-    List<UserFollower> findByFollowingUserAndIsStillFollowingTrue(User followingUser);
+    // Tek join sorgusu doğrudan UserDto'ya projekte edilir; sayfalama user_id üzerinden keyset ile yapılır
+    @Query("select new com.musdb.userservice.dto.UserDto(u.userId, u.name, u.surname, u.email, u.dob, u.description, " +
+            "u.profilePhotoId, u.userType, u.createdAt, u.updatedAt, u.followerCount, u.followingCount) " +
+            "from UserFollower f join f.user u " +
+            "where f.id.followingUserId = :userId and f.isStillFollowing = true and u.isDelete = false " +
+            "and u.userId < :beforeUserId " +
+            "order by u.userId desc")
+    List<UserDto> findFollowers(@Param("userId") Long userId, @Param("beforeUserId") Long beforeUserId, Limit limit);
 
-    List<UserFollower> findByUserAndIsStillFollowingTrue(User user);
+    @Query("select new com.musdb.userservice.dto.UserDto(u.userId, u.name, u.surname, u.email, u.dob, u.description, " +
+            "u.profilePhotoId, u.userType, u.createdAt, u.updatedAt, u.followerCount, u.followingCount) " +
+            "from UserFollower f join f.followingUser u " +
+            "where f.id.userId = :userId and f.isStillFollowing = true and u.isDelete = false " +
+            "and u.userId < :beforeUserId " +
+            "order by u.userId desc")
+    List<UserDto> findFollowings(@Param("userId") Long userId, @Param("beforeUserId") Long beforeUserId, Limit limit);
 
-    long countByFollowingUserAndIsStillFollowingTrue(User user);
+    // idx_user_follower_user_id_active üzerinden tek sorgu, sadece index'ten okunur
+    @Query("select f.id.followingUserId from UserFollower f " +
+            "where f.id.userId = :userId and f.id.followingUserId in :targetIds and f.isStillFollowing = true")
+    List<Long> findFollowedUserIds(@Param("userId") Long userId, @Param("targetIds") Collection<Long> targetIds);
 
-    long countByUserAndIsStillFollowingTrue(User user);
+    // Koşullu güncelleme: aynı anda gelen iki istekten sadece biri durumu değiştirir ve sayaçları artırır
+    @Modifying
+    @Query("update UserFollower f set f.isStillFollowing = true " +
+            "where f.id.userId = :userId and f.id.followingUserId = :followingUserId " +
+            "and (f.isStillFollowing = false or f.isStillFollowing is null)")
+    int startFollowing(@Param("userId") Long userId, @Param("followingUserId") Long followingUserId);
+
+    @Modifying
+    @Query("update UserFollower f set f.isStillFollowing = false " +
+            "where f.id.userId = :userId and f.id.followingUserId = :followingUserId and f.isStillFollowing = true")
+    int stopFollowing(@Param("userId") Long userId, @Param("followingUserId") Long followingUserId);
+
+    // Akışa itme (fan-out) için; idx_user_follower_following_user_id_active ile sadece index'ten okunur
+    @Query("select f.id.userId from UserFollower f " +
+            "where f.id.followingUserId = :userId and f.isStillFollowing = true")
+    List<Long> findFollowerIds(@Param("userId") Long userId);
+
+    // Okuma anında çekilecek yüksek takipçili hesaplar; sonuç akış deposunda önbelleğe alınır
+    @Query("select u.userId from UserFollower f join f.followingUser u " +
+            "where f.id.userId = :userId and f.isStillFollowing = true and u.isDelete = false " +
+            "and u.followerCount >= :threshold " +
+            "order by u.followerCount desc")
+    List<Long> findFollowedUserIdsWithFollowerCountAtLeast(@Param("userId") Long userId,
+                                                          @Param("threshold") long threshold,
+                                                          Limit limit);
 }
@@ -3,19 +3,84 @@ package com.musdb.userservice.repository;
 import com.musdb.userservice.model.User;
 import com.musdb.userservice.model.UserType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 //TODO: Repo sorguları @Query ile desteklenmeli (Hepsinde değil.)
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    List<User> findByUserType(UserType userType);
+    List<User> findByUserTypeAndIsDeleteFalse(UserType userType);
 
     Optional<User> findByUserIdAndIsDeleteFalse(Long userId);
 
-    List<User> findByNameContainingOrSurnameContaining(String name, String surname);
+    List<User> findByUserIdInAndIsDeleteFalse(Collection<Long> userIds);
+
+    boolean existsByUserIdAndIsDeleteTrue(Long userId);
+
+    boolean existsByUserIdAndIsDeleteFalse(Long userId);
+
+    @Query("select u.followerCount from User u where u.userId = :userId and u.isDelete = false")
+    Long findActiveFollowerCount(@Param("userId") Long userId);
+
+    @Query("select u.userId from User u where u.userId in :userIds and u.isDelete = false")
+    List<Long> findActiveUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("update User u set u.followerCount = u.followerCount + :delta where u.userId = :userId")
+    int adjustFollowerCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update User u set u.followingCount = u.followingCount + :delta where u.userId = :userId")
+    int adjustFollowingCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Query("select max(u.userId) from User u")
+    Long findMaxUserId();
+
+    // Sayaçları user_follower tablosundan yeniden hesaplar, sadece farklı olan satırlar güncellenir
+    @Modifying
+    @Query("update User u set u.followerCount = " +
+            "(select count(f) from UserFollower f where f.id.followingUserId = u.userId and f.isStillFollowing = true) " +
+            "where u.userId between :fromId and :toId and u.followerCount <> " +
+            "(select count(f) from UserFollower f where f.id.followingUserId = u.userId and f.isStillFollowing = true)")
+    int reconcileFollowerCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("update User u set u.followingCount = " +
+            "(select count(f) from UserFollower f where f.id.userId = u.userId and f.isStillFollowing = true) " +
+            "where u.userId between :fromId and :toId and u.followingCount <> " +
+            "(select count(f) from UserFollower f where f.id.userId = u.userId and f.isStillFollowing = true)")
+    int reconcileFollowingCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // pg_trgm: idx_users_active_full_name_trgm aynı ifade üzerinde tanımlı, hem ILIKE hem de <% koşulunu karşılar
+    @Query(value = "select u.* from users u " +
+            "where u.is_delete = false " +
+            "and ((coalesce(u.name, '') || ' ' || coalesce(u.surname, '')) ilike :pattern escape '\\' " +
+            "or :query <% (coalesce(u.name, '') || ' ' || coalesce(u.surname, ''))) " +
+            "order by word_similarity(:query, coalesce(u.name, '') || ' ' || coalesce(u.surname, '')) desc, u.user_id desc " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<User> searchByTrigram(@Param("query") String query,
+                               @Param("pattern") String pattern,
+                               @Param("offset") long offset,
+                               @Param("limit") int limit);
+
+    @Query("select u from User u " +
+            "where u.isDelete = false " +
+            "and lower(concat(coalesce(u.name, ''), ' ', coalesce(u.surname, ''))) like :pattern escape '\\' " +
+            "order by case when lower(u.name) = :query or lower(u.surname) = :query then 0 " +
+            "when lower(u.name) like :prefix escape '\\' or lower(u.surname) like :prefix escape '\\' then 1 " +
+            "else 2 end, u.userId desc " +
+            "limit :limit offset :offset")
+    List<User> searchByLike(@Param("query") String query,
+                            @Param("prefix") String prefix,
+                            @Param("pattern") String pattern,
+                            @Param("offset") long offset,
+                            @Param("limit") int limit);
 
     List<User> findAllByIsDeleteFalse();
 }
@@ -0,0 +1,33 @@
+package com.musdb.userservice.search;
+
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+// Trigram desteği olmayan veritabanları (testlerdeki H2) için; tam eşleşme, önek, içerme sırasıyla sıralar
+@Component
+@ConditionalOnProperty(prefix = "user.search", name = "engine", havingValue = "like")
+public class LikeUserSearchEngine implements UserSearchEngine {
+    private final UserRepository userRepository;
+
+    @Autowired
+    public LikeUserSearchEngine(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public List<User> search(String query, long offset, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        return userRepository.searchByLike(
+                normalized,
+                SearchPatterns.startsWith(normalized),
+                SearchPatterns.contains(normalized),
+                offset,
+                limit);
+    }
+}
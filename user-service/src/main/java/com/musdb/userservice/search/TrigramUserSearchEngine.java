@@ -0,0 +1,26 @@
+package com.musdb.userservice.search;
+
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// PostgreSQL pg_trgm: ad ve soyad birleşimi üzerindeki GIN trigram index'ini kullanır
+@Component
+@ConditionalOnProperty(prefix = "user.search", name = "engine", havingValue = "trigram", matchIfMissing = true)
+public class TrigramUserSearchEngine implements UserSearchEngine {
+    private final UserRepository userRepository;
+
+    @Autowired
+    public TrigramUserSearchEngine(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public List<User> search(String query, long offset, int limit) {
+        return userRepository.searchByTrigram(query, SearchPatterns.contains(query), offset, limit);
+    }
+}
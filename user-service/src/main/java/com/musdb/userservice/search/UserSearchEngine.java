@@ -0,0 +1,10 @@
+package com.musdb.userservice.search;
+
+import com.musdb.userservice.model.User;
+
+import java.util.List;
+
+// Sonuçlar alaka düzeyine göre sıralı döner; user.search.engine ile seçilir (trigram | like)
+public interface UserSearchEngine {
+    List<User> search(String query, long offset, int limit);
+}
@@ -0,0 +1,21 @@
+package com.musdb.userservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// İmzalı token claim'lerinden oluşturulan principal; istek sırasında veritabanına gidilmez
+@Getter
+@ToString
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+    private final Long userId;
+    private final String username;
+    private final String userType;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
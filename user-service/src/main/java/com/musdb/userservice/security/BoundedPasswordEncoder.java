@@ -0,0 +1,187 @@
+package com.musdb.userservice.security;
+
+import com.musdb.userservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// BCrypt istek thread'inde değil, sabit boyutlu platform thread havuzunda çalışır; giriş yoğunluğu diğer endpoint'leri aç bırakmaz.
+// Kuyruk doluysa ya da sonuç max-wait içinde gelmezse istek beklemeden 429 ile reddedilir.
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final HashStats encodeStats = new HashStats();
+    private final HashStats matchStats = new HashStats();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+
+    @Autowired
+    public BoundedPasswordEncoder(@Value("${user.password.bcrypt-strength:10}") int strength,
+                                  @Value("${user.password.hash-threads:0}") int threads,
+                                  @Value("${user.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${user.password.max-wait:5s}") Duration maxWait,
+                                  @Value("${user.password.retry-after:1s}") Duration retryAfter) {
+        this(new BCryptPasswordEncoder(strength),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, maxWait, retryAfter);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait, Duration retryAfter) {
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+    }
+
+    // Toplu içe aktarma gibi kendi havuzunda hashleyen işler içindir
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeStats);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchStats);
+    }
+
+    // Düşük maliyetle saklanmış şifre girişte yeniden hashlenir; kuyruk yarıdan fazla doluysa bir sonraki girişe bırakılır
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && executor.getQueueSize() < queueCapacity / 2;
+    }
+
+    // Girişteki yeniden hashleme isteği bekletmez ve reddedilmez: kuyruk bu arada dolduysa iş sessizce bırakılır.
+    // upgradeEncoding'deki kuyruk kontrolü ile gönderim arasındaki yarış sadece bir yükseltmenin ertelenmesine yol açar
+    public void encodeInBackground(CharSequence rawPassword, Consumer<String> onEncoded) {
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                String encoded;
+                try {
+                    encoded = delegate.encode(rawPassword);
+                } finally {
+                    encodeStats.record(System.nanoTime() - startedAt);
+                }
+                onEncoded.accept(encoded);
+            });
+        } catch (TaskRejectedException e) {
+            // Eski hash geçerliliğini korur, bir sonraki girişte yeniden denenir
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTimer(registry, "encode", encodeStats);
+        bindTimer(registry, "matches", matchStats);
+        Gauge.builder("user.password.hash.queue", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Password hash requests waiting for a thread")
+                .register(registry);
+        Gauge.builder("user.password.hash.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Password hash threads currently busy")
+                .register(registry);
+        FunctionCounter.builder("user.password.hash.rejected", rejectedTotal, AtomicLong::get)
+                .description("Password hash requests shed with 429")
+                .register(registry);
+    }
+
+    private <T> T submit(Callable<T> task, HashStats stats) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    stats.record(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            throw reject();
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private TooManyRequestsException reject() {
+        rejectedTotal.incrementAndGet();
+        return new TooManyRequestsException("Too many authentication requests, please retry later", retryAfterSeconds);
+    }
+
+    private void bindTimer(MeterRegistry registry, String operation, HashStats stats) {
+        FunctionTimer.builder("user.password.hash", stats, HashStats::count, HashStats::totalNanos, TimeUnit.NANOSECONDS)
+                .tag("operation", operation)
+                .description("Time spent hashing or verifying passwords, excluding queue wait")
+                .register(registry);
+    }
+
+    private static final class HashStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        double totalNanos() {
+            return totalNanos.get();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.musdb.userservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -16,15 +19,43 @@ import java.util.function.Function;
 
 @Service
 public class JwtService {
+    private final JwtClaimsCache jwtClaimsCache;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    // Anahtar ve parser bir kez oluşturulur; JwtParser değişmez ve thread-safe'tir
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @Autowired
+    public JwtService(JwtClaimsCache jwtClaimsCache) {
+        this.jwtClaimsCache = jwtClaimsCache;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    // İmza ve süre kontrolü dahil; istek başına bir kez çağrılıp sonuç tekrar kullanılmalı
+    public Claims parseClaims(String token) {
+        Claims claims = jwtClaimsCache.get(token);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            jwtClaimsCache.put(token, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -41,11 +72,7 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseClaims(token);
     }
 
     private Boolean isTokenExpired(String token) {
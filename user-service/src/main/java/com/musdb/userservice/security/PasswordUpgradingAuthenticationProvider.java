@@ -0,0 +1,39 @@
+package com.musdb.userservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// DaoAuthenticationProvider eski hash'i istek thread'inde encode ile yeniler; hash havuzu doluysa bu çağrı 429 fırlatır
+// ve doğru şifreyle yapılan giriş başarısız olur. Burada yükseltme hash havuzuna bırakılır, giriş sonucunu beklemez.
+public class PasswordUpgradingAuthenticationProvider extends DaoAuthenticationProvider {
+    private static final Logger log = LoggerFactory.getLogger(PasswordUpgradingAuthenticationProvider.class);
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+
+    public PasswordUpgradingAuthenticationProvider(BoundedPasswordEncoder passwordEncoder,
+                                                   CustomUserDetailsService userDetailsService) {
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        setPasswordEncoder(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        if (authentication.getCredentials() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String presentedPassword = authentication.getCredentials().toString();
+            passwordEncoder.encodeInBackground(presentedPassword, encoded -> {
+                try {
+                    userDetailsService.updatePassword(user, encoded);
+                } catch (RuntimeException e) {
+                    log.warn("Could not upgrade password hash of {}: {}", user.getUsername(), e.getMessage());
+                }
+            });
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
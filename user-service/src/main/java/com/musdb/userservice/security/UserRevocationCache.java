@@ -0,0 +1,77 @@
+package com.musdb.userservice.security;
+
+import com.musdb.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Silinen kullanıcıların hâlâ geçerli token'larını reddetmek için kullanıcı başına kısa süreli durum önbelleği.
+// Silme bu instance'ta yapıldıysa hemen, başka bir instance'ta yapıldıysa en geç ttl sonunda etkili olur.
+@Component
+public class UserRevocationCache {
+    private final UserRepository userRepository;
+    private final LinkedHashMap<Long, Status> statuses;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${jwt.revocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.revocation.ttl:30s}")
+    private Duration ttl;
+
+    @Autowired
+    public UserRevocationCache(UserRepository userRepository,
+                               @Value("${jwt.revocation.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.statuses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Status> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isRevoked(Long userId) {
+        if (!enabled || userId == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Status status = statuses.get(userId);
+            if (status != null && now - status.checkedAt < ttl.toMillis()) {
+                return status.revoked;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Sorgu kilit dışında yapılır; aynı anda gelen birkaç istek aynı sonucu yazar
+        boolean revoked = userRepository.existsByUserIdAndIsDeleteTrue(userId);
+        lock.lock();
+        try {
+            statuses.put(userId, new Status(revoked, now));
+        } finally {
+            lock.unlock();
+        }
+        return revoked;
+    }
+
+    public void revoke(Long userId) {
+        lock.lock();
+        try {
+            statuses.put(userId, new Status(true, System.currentTimeMillis()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Status(boolean revoked, long checkedAt) {
+    }
+}
@@ -1,23 +1,13 @@
 package com.musdb.userservice.security;
 
-import com.musdb.userservice.model.User;
-import com.musdb.userservice.model.UserCredential;
-import com.musdb.userservice.repository.UserCredentialRepository;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UserSecurity {
-    private final UserCredentialRepository userCredentialRepository;
-
-    @Autowired
-    public UserSecurity(UserCredentialRepository userCredentialRepository) {
-        this.userCredentialRepository = userCredentialRepository;
-    }
 
+    // Kullanıcı kimliği token'dan gelir, yetki kontrolü için sorgu atılmaz
     public Boolean isUserSelf(Long userId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -25,17 +15,23 @@ public class UserSecurity {
         }
 
         Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            UserDetails userDetails = (UserDetails) principal;
-            String username = userDetails.getUsername();
-
-            UserCredential userCredential = userCredentialRepository.findByUsername(username).orElseThrow(null);
-            if (userCredential != null) {
-                User user = userCredential.getUser();
-                return user.getUserId().equals(userId);
-            }
+        if (principal instanceof AuthenticatedUser) {
+            AuthenticatedUser authenticatedUser = (AuthenticatedUser) principal;
+            return authenticatedUser.getUserId() != null && authenticatedUser.getUserId().equals(userId);
         }
 
         return false;
     }
+
+    // GET /api/users/{userId} ile aynı kural; özel alanlar (e-posta, doğum tarihi) yalnızca admin'e ve kullanıcının kendisine döner
+    public boolean isAdminOrSelf(Long userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin || isUserSelf(userId);
+    }
 }
@@ -0,0 +1,16 @@
+package com.musdb.userservice.service;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FeedItemDto;
+
+public interface FeedService {
+    CursorPageDto<FeedItemDto> getFeed(Long userId, String cursor, Integer limit);
+
+    void onPhotoUploaded(FeedItemDto item);
+
+    void onPhotoDeleted(Long photoId, Long authorId);
+
+    void onFollowChanged(Long userId, Long followingUserId, boolean following);
+
+    void onUserDeleted(Long userId);
+}
@@ -0,0 +1,12 @@
+package com.musdb.userservice.service;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.OutboxEventDto;
+
+public interface OutboxService {
+    void append(String topic, Object key, Object payload);
+
+    CursorPageDto<OutboxEventDto> getEvents(String cursor, Integer limit);
+
+    int replayAfter(Long eventId);
+}
@@ -0,0 +1,18 @@
+package com.musdb.userservice.service;
+
+import com.musdb.userservice.dto.ImportJobDto;
+import com.musdb.userservice.dto.ImportRequestDto;
+
+import java.util.List;
+
+public interface UserImportService {
+    ImportJobDto startImport(ImportRequestDto importRequest);
+
+    ImportJobDto resumeImport(Long jobId);
+
+    ImportJobDto cancelImport(Long jobId);
+
+    ImportJobDto getImport(Long jobId);
+
+    List<ImportJobDto> getImports();
+}
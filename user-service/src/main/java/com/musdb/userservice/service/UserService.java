@@ -1,5 +1,9 @@
 package com.musdb.userservice.service;
 
+import com.musdb.userservice.dto.BatchLookupResultDto;
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FollowBatchRequestDto;
+import com.musdb.userservice.dto.FollowBatchResultDto;
 import com.musdb.userservice.dto.LoginRequestDto;
 import com.musdb.userservice.dto.LoginResponseDto;
 import com.musdb.userservice.dto.UserDto;
@@ -7,6 +11,7 @@ import com.musdb.userservice.dto.UserRegistrationDto;
 import com.musdb.userservice.model.UserType;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     UserDto registerUser(UserRegistrationDto registrationDto);
@@ -15,11 +20,13 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    BatchLookupResultDto<UserDto> getUsersByIds(List<Long> userIds);
+
     List<UserDto> getAllUsers();
 
     List<UserDto> getUsersByType(UserType userType);
 
-    List<UserDto> searchUsers(String query);
+    CursorPageDto<UserDto> searchUsers(String query, String cursor, Integer limit);
 
     UserDto updateUser(Long userId, UserDto userDto);
 
@@ -29,9 +36,13 @@ public interface UserService {
 
     boolean unfollowUser(Long followerId, Long followingUserId);
 
-    List<UserDto> getFollowers(Long userId);
+    FollowBatchResultDto applyFollowBatch(Long userId, FollowBatchRequestDto request);
+
+    Map<Long, Boolean> getFollowingStatus(Long userId, List<Long> targetUserIds);
+
+    CursorPageDto<UserDto> getFollowers(Long userId, String cursor, Integer limit);
 
-    List<UserDto> getFollowings(Long userId);
+    CursorPageDto<UserDto> getFollowings(Long userId, String cursor, Integer limit);
 
     Long getFollowerCount(Long userId);
 
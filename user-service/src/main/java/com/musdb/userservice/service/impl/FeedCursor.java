@@ -0,0 +1,37 @@
+package com.musdb.userservice.service.impl;
+
+import com.musdb.userservice.exception.InvalidRequestException;
+import com.musdb.userservice.feed.FeedPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Akışta son dönen kaydın (createdAt, photoId) ikilisi istemciye opak bir token olarak taşınır
+final class FeedCursor {
+    private static final char SEPARATOR = '_';
+
+    private FeedCursor() {
+    }
+
+    static String encode(FeedPosition last) {
+        String value = last.createdAt().toString() + SEPARATOR + last.photoId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // İlk sayfada üst sınır yoktur
+    static FeedPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new FeedPosition(LocalDateTime.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.musdb.userservice.service.impl;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FeedItemDto;
+import com.musdb.userservice.exception.ResourceNotFoundException;
+import com.musdb.userservice.feed.FeedPosition;
+import com.musdb.userservice.feed.Timeline;
+import com.musdb.userservice.feed.TimelineStore;
+import com.musdb.userservice.model.FeedPost;
+import com.musdb.userservice.repository.FeedPostRepository;
+import com.musdb.userservice.repository.UserFollowerRepository;
+import com.musdb.userservice.repository.UserRepository;
+import com.musdb.userservice.service.FeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Karma fan-out: normal hesapların fotoğrafları yüklendiği anda takipçilerin akışına itilir,
+// pull-threshold üstünde takipçisi olan hesaplarınki ise okuma anında yazarın son fotoğraflarından çekilir.
+// Bir sayfa, sınırlı boyuttaki akış ile en fazla max-pulled-authors yazar listesinin birleşimidir;
+// kullanıcının kaç hesabı takip ettiğinden bağımsızdır.
+// Yazarların son fotoğrafları feed_posts tablosuna yazılır, bellekteki akışlar bunun önbelleğidir: yalnızca bellekte olan akışlara
+// itilir, olmayan akış okunurken tablodan kurulur. Birden fazla instance'ta her instance photo.uploaded olaylarının bir kısmını
+// tüketir; tablo ortak olduğu için bir instance'ın akışı diğerinin tükettiği fotoğrafları en geç user.feed.max-staleness sonra görür.
+@Service
+public class FeedServiceImpl implements FeedService {
+    private final TimelineStore timelineStore;
+    private final UserRepository userRepository;
+    private final UserFollowerRepository userFollowerRepository;
+    private final FeedPostRepository feedPostRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${user.feed.pull-threshold:10000}")
+    private long pullThreshold;
+
+    @Value("${user.feed.max-pulled-authors:100}")
+    private int maxPulledAuthors;
+
+    @Value("${user.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${user.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Autowired
+    public FeedServiceImpl(TimelineStore timelineStore,
+                           UserRepository userRepository,
+                           UserFollowerRepository userFollowerRepository,
+                           FeedPostRepository feedPostRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.timelineStore = timelineStore;
+        this.userRepository = userRepository;
+        this.userFollowerRepository = userFollowerRepository;
+        this.feedPostRepository = feedPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public CursorPageDto<FeedItemDto> getFeed(Long userId, String cursor, Integer limit) {
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        FeedPosition before = FeedCursor.decode(cursor);
+
+        List<FeedItemDto> candidates = new ArrayList<>(timelineStore.timeline(userId, this::findPushedItems).page(before, pageSize + 1));
+        for (Long authorId : timelineStore.pulledAuthors(userId, this::findPulledAuthors)) {
+            candidates.addAll(timelineStore.authorPosts(authorId, this::findAuthorPosts).page(before, pageSize + 1));
+        }
+
+        // Yazar eşiği geçtiyse aynı fotoğraf hem itilmiş hem çekilmiş olabilir
+        Map<Long, FeedItemDto> merged = new LinkedHashMap<>();
+        candidates.stream()
+                .sorted(Comparator.comparing(FeedPosition::of, FeedPosition.NEWEST_FIRST))
+                .forEach(item -> merged.putIfAbsent(item.getPhotoId(), item));
+
+        List<FeedItemDto> items = merged.values().stream().limit(pageSize + 1).toList();
+        boolean hasNext = items.size() > pageSize;
+        if (hasNext) {
+            items = items.subList(0, pageSize);
+        }
+
+        return CursorPageDto.<FeedItemDto>builder()
+                .items(items)
+                .nextCursor(hasNext ? FeedCursor.encode(FeedPosition.of(items.get(items.size() - 1))) : null)
+                .build();
+    }
+
+    @Override
+    public void onPhotoUploaded(FeedItemDto item) {
+        // createdAt taşımayan eski olaylar alındıkları anda yüklenmiş sayılır
+        if (item.getCreatedAt() == null) {
+            item.setCreatedAt(LocalDateTime.now());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            feedPostRepository.save(new FeedPost(item));
+            feedPostRepository.trimAuthor(item.getUserId(), timelineStore.getAuthorPostsSize());
+        });
+
+        // Bellekte olmayan akışlar okunurken tablodan kurulur ve bu fotoğrafı içerir
+        Timeline posts = timelineStore.existingAuthorPosts(item.getUserId());
+        if (posts != null) {
+            posts.add(item);
+        }
+        if (isPulled(item.getUserId())) {
+            return;
+        }
+        for (Long followerId : userFollowerRepository.findFollowerIds(item.getUserId())) {
+            Timeline timeline = timelineStore.existingTimeline(followerId);
+            if (timeline != null) {
+                timeline.add(item);
+            }
+        }
+    }
+
+    // Silme seyrek olduğu için eşikten bağımsız olarak tüm takipçilerden kaldırılır;
+    // yazar eşiği sonradan geçtiyse önceden itilmiş fotoğraflar da temizlenir
+    @Override
+    public void onPhotoDeleted(Long photoId, Long authorId) {
+        transactionTemplate.executeWithoutResult(status -> feedPostRepository.deleteByPhotoId(photoId));
+
+        Timeline posts = timelineStore.existingAuthorPosts(authorId);
+        if (posts != null) {
+            posts.remove(photoId);
+        }
+        for (Long followerId : userFollowerRepository.findFollowerIds(authorId)) {
+            Timeline timeline = timelineStore.existingTimeline(followerId);
+            if (timeline != null) {
+                timeline.remove(photoId);
+            }
+        }
+    }
+
+    @Override
+    public void onFollowChanged(Long userId, Long followingUserId, boolean following) {
+        timelineStore.invalidatePulledAuthors(userId);
+
+        if (!following) {
+            Timeline timeline = timelineStore.existingTimeline(userId);
+            if (timeline != null) {
+                timeline.removeAuthor(followingUserId);
+            }
+            return;
+        }
+
+        // Yeni takip edilen normal hesabın son fotoğrafları akışa hemen eklenir; akış bellekte yoksa kurulurken zaten gelir
+        Timeline timeline = timelineStore.existingTimeline(userId);
+        if (timeline != null && !isPulled(followingUserId)) {
+            timeline.addAll(findAuthorPosts(followingUserId));
+        }
+    }
+
+    @Override
+    public void onUserDeleted(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> feedPostRepository.deleteByAuthorUserId(userId));
+        timelineStore.removeUser(userId);
+        for (Long followerId : userFollowerRepository.findFollowerIds(userId)) {
+            Timeline timeline = timelineStore.existingTimeline(followerId);
+            if (timeline != null) {
+                timeline.removeAuthor(userId);
+            }
+            timelineStore.invalidatePulledAuthors(followerId);
+        }
+    }
+
+    private boolean isPulled(Long authorId) {
+        Long followerCount = userRepository.findActiveFollowerCount(authorId);
+        return followerCount != null && followerCount >= pullThreshold;
+    }
+
+    private List<FeedItemDto> findPushedItems(Long userId) {
+        return feedPostRepository.findPushedFeedItems(userId, pullThreshold, Limit.of(timelineStore.getTimelineSize()));
+    }
+
+    private List<FeedItemDto> findAuthorPosts(Long authorId) {
+        return feedPostRepository.findRecentByAuthor(authorId, Limit.of(timelineStore.getAuthorPostsSize()));
+    }
+
+    private List<Long> findPulledAuthors(Long userId) {
+        return userFollowerRepository.findFollowedUserIdsWithFollowerCountAtLeast(userId, pullThreshold, Limit.of(maxPulledAuthors));
+    }
+}
@@ -0,0 +1,30 @@
+package com.musdb.userservice.service.impl;
+
+import com.musdb.userservice.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Takipçi listelerinde son dönen user_id istemciye opak bir token olarak taşınır
+final class KeysetCursor {
+    private KeysetCursor() {
+    }
+
+    static String encode(Long lastUserId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastUserId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // İlk sayfada üst sınır yoktur
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.musdb.userservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.OutboxEventDto;
+import com.musdb.userservice.exception.InvalidRequestException;
+import com.musdb.userservice.model.OutboxEvent;
+import com.musdb.userservice.repository.OutboxEventRepository;
+import com.musdb.userservice.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${user.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${user.outbox.replay.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Autowired
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Olay, değişikliği yapan transaction'a yazılır; transaction geri alınırsa olay da yayınlanmaz
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, Object key, Object payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(topic, String.valueOf(key), objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload cannot be serialized", e);
+        }
+    }
+
+    // Tüketiciler son işledikleri eventId'yi cursor olarak saklayıp kaldıkları yerden devam eder
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OutboxEventDto> getEvents(String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<OutboxEvent> events = outboxEventRepository.findByEventIdGreaterThanOrderByEventId(parseCursor(cursor), Limit.of(pageSize));
+
+        String nextCursor = events.size() == pageSize
+                ? String.valueOf(events.get(events.size() - 1).getEventId())
+                : null;
+
+        return CursorPageDto.<OutboxEventDto>builder()
+                .items(events.stream().map(this::mapToDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int replayAfter(Long eventId) {
+        return outboxEventRepository.markUnpublishedAfter(eventId == null ? 0L : eventId);
+    }
+
+    private Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    private OutboxEventDto mapToDto(OutboxEvent event) {
+        try {
+            return OutboxEventDto.builder()
+                    .eventId(event.getEventId())
+                    .topic(event.getTopic())
+                    .key(event.getMessageKey())
+                    .payload(objectMapper.readTree(event.getPayload()))
+                    .createdAt(event.getCreatedAt())
+                    .publishedAt(event.getPublishedAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored event " + event.getEventId() + " is not valid JSON", e);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.musdb.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musdb.userservice.dto.ImportJobDto;
+import com.musdb.userservice.dto.ImportRequestDto;
+import com.musdb.userservice.exception.InvalidRequestException;
+import com.musdb.userservice.exception.ResourceNotFoundException;
+import com.musdb.userservice.importer.ImportBatch;
+import com.musdb.userservice.importer.ImportPipeline;
+import com.musdb.userservice.importer.ManifestReader;
+import com.musdb.userservice.importer.ManifestRecord;
+import com.musdb.userservice.model.ImportJob;
+import com.musdb.userservice.model.ImportStatus;
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.model.UserCredential;
+import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.repository.ImportJobRepository;
+import com.musdb.userservice.repository.UserCredentialRepository;
+import com.musdb.userservice.repository.UserRepository;
+import com.musdb.userservice.security.BoundedPasswordEncoder;
+import com.musdb.userservice.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Manifestteki kullanıcılar parse -> şifre hash (userImportHashExecutor) -> toplu insert aşamalarından geçer.
+// İçe aktarılan kullanıcılar için outbox olayı yazılmaz; taşınan hesaplar diğer servislerde zaten bilinir.
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    // Eski sistemden gelen BCrypt özetleri yeniden hashlenmeden kullanılır
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+    private static final int MIN_PASSWORD_LENGTH = 8;
+
+    private final ImportJobRepository importJobRepository;
+    private final UserRepository userRepository;
+    private final UserCredentialRepository userCredentialRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor userImportHashExecutor;
+    private final ThreadPoolTaskExecutor userImportExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock launchLock = new ReentrantLock();
+    private final AtomicLong activeJobId = new AtomicLong();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+
+    @Value("${user.import.dir:${user.home}/musdb/imports}")
+    private String importDir;
+
+    @Value("${user.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user.import.max-pending-batches:8}")
+    private int maxPendingBatches;
+
+    @Autowired
+    public UserImportServiceImpl(ImportJobRepository importJobRepository,
+                                 UserRepository userRepository,
+                                 UserCredentialRepository userCredentialRepository,
+                                 BoundedPasswordEncoder passwordEncoder,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("userImportHashExecutor") ThreadPoolTaskExecutor userImportHashExecutor,
+                                 @Qualifier("userImportExecutor") ThreadPoolTaskExecutor userImportExecutor,
+                                 PlatformTransactionManager transactionManager) {
+        this.importJobRepository = importJobRepository;
+        this.userRepository = userRepository;
+        this.userCredentialRepository = userCredentialRepository;
+        // Giriş isteklerinin havuzu ve 429 sınırı atlanır, hash içe aktarmanın kendi havuzunda yapılır
+        this.passwordEncoder = passwordEncoder.getDelegate();
+        this.objectMapper = objectMapper;
+        this.userImportHashExecutor = userImportHashExecutor;
+        this.userImportExecutor = userImportExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportJobDto startImport(ImportRequestDto importRequest) {
+        Path manifest = resolveManifest(importRequest.getManifest());
+
+        launchLock.lock();
+        try {
+            ensureIdle();
+            ImportJob job = importJobRepository.save(new ImportJob(importRequest.getManifest()));
+            launch(job, manifest);
+            return mapToDto(job);
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    // Yarıda kalan, iptal edilen ya da hata alan iş son yazılan kayıttan devam eder
+    @Override
+    public ImportJobDto resumeImport(Long jobId) {
+        launchLock.lock();
+        try {
+            ImportJob job = findJob(jobId);
+            if (job.getStatus() == ImportStatus.COMPLETED) {
+                throw new InvalidRequestException("Import job is already completed");
+            }
+            ensureIdle();
+
+            Path manifest = resolveManifest(job.getManifest());
+            job.setStatus(ImportStatus.RUNNING);
+            job.setLastError(null);
+            job.setFinishedAt(null);
+            job = importJobRepository.save(job);
+            launch(job, manifest);
+            return mapToDto(job);
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    // Okuma durur, kuyruktaki partiler yazılır; iş bunun ardından CANCELLED olur
+    @Override
+    public ImportJobDto cancelImport(Long jobId) {
+        launchLock.lock();
+        try {
+            ImportJob job = findJob(jobId);
+            if (activeJobId.get() == jobId) {
+                cancelRequested.set(true);
+                return mapToDto(job);
+            }
+            if (job.getStatus() != ImportStatus.RUNNING) {
+                throw new InvalidRequestException("Import job is not running");
+            }
+
+            // Servis yeniden başladığı için yarıda kalmış iş
+            job.setStatus(ImportStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            return mapToDto(importJobRepository.save(job));
+        } finally {
+            launchLock.unlock();
+        }
+    }
+
+    @Override
+    public ImportJobDto getImport(Long jobId) {
+        return mapToDto(findJob(jobId));
+    }
+
+    @Override
+    public List<ImportJobDto> getImports() {
+        return importJobRepository.findTop50ByOrderByJobIdDesc().stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    private void launch(ImportJob job, Path manifest) {
+        cancelRequested.set(false);
+        activeJobId.set(job.getJobId());
+        try {
+            userImportExecutor.execute(() -> run(job, manifest));
+        } catch (RuntimeException e) {
+            activeJobId.set(0);
+            throw e;
+        }
+    }
+
+    private void run(ImportJob base, Path manifest) {
+        // Hash havuzundaki tüm thread'lerin meşgul kalması için en az havuz boyutu kadar parti bekletilir
+        int pendingBatches = Math.max(maxPendingBatches, userImportHashExecutor.getMaxPoolSize());
+        ImportPipeline<List<PreparedUser>> pipeline = new ImportPipeline<>(batchSize, pendingBatches, userImportHashExecutor, userImportExecutor);
+        long startedAt = System.nanoTime();
+
+        try {
+            ImportStatus status = ImportStatus.COMPLETED;
+            String error = null;
+            try (ManifestReader reader = ManifestReader.open(manifest, objectMapper)) {
+                pipeline.run(reader, base.getRecordsCommitted(), this::prepare,
+                        batch -> write(base, batch, pipeline, startedAt),
+                        prepared -> {
+                            // Hazırlanan partide yalnızca bellekteki nesneler var
+                        },
+                        cancelRequested::get);
+                if (cancelRequested.get()) {
+                    status = ImportStatus.CANCELLED;
+                }
+            } catch (Exception e) {
+                log.error("User import {} failed", base.getJobId(), e);
+                status = ImportStatus.FAILED;
+                error = e.getMessage();
+            }
+
+            finish(base, status, error, pipeline, startedAt);
+        } catch (RuntimeException e) {
+            log.error("User import {} could not be finalized", base.getJobId(), e);
+        } finally {
+            activeJobId.set(0);
+        }
+    }
+
+    private List<PreparedUser> prepare(List<ManifestRecord> records) {
+        List<PreparedUser> prepared = new ArrayList<>(records.size());
+        for (ManifestRecord record : records) {
+            try {
+                prepared.add(prepareUser(record));
+            } catch (IllegalArgumentException e) {
+                log.warn("User import record {} rejected: {}", record.getNumber(), e.getMessage());
+                prepared.add(new PreparedUser(null, null, null));
+            }
+        }
+        return prepared;
+    }
+
+    private PreparedUser prepareUser(ManifestRecord record) {
+        if (record.getError() != null) {
+            throw new IllegalArgumentException(record.getError());
+        }
+
+        User user = new User();
+        user.setName(required(record, "name"));
+        user.setSurname(required(record, "surname"));
+        user.setEmail(record.get("email"));
+        user.setDescription(record.get("description"));
+        user.setDob(parseDob(record.get("dob")));
+        user.setUserType(parseUserType(record.get("userType")));
+        user.setIsDelete(false);
+
+        String username = required(record, "username");
+        String passwordHash = record.get("passwordHash");
+        if (passwordHash != null) {
+            if (!BCRYPT_HASH.matcher(passwordHash).matches()) {
+                throw new IllegalArgumentException("passwordHash is not a BCrypt hash");
+            }
+        } else {
+            // Şifre trim edilmeden kullanılır
+            String password = record.getFields().get("password");
+            if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+                throw new IllegalArgumentException("Password must be at least " + MIN_PASSWORD_LENGTH + " characters long");
+            }
+            passwordHash = passwordEncoder.encode(password);
+        }
+
+        return new PreparedUser(username, passwordHash, user);
+    }
+
+    // Parti, iş sayaçları ve checkpoint aynı transaction'da yazılır
+    private void write(ImportJob base, ImportBatch<List<PreparedUser>> batch,
+                       ImportPipeline<?> pipeline, long startedAt) {
+        List<PreparedUser> valid = batch.getPrepared().stream()
+                .filter(preparedUser -> preparedUser.username() != null)
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> usernames = new HashSet<>();
+            if (!valid.isEmpty()) {
+                usernames.addAll(userCredentialRepository.findExistingUsernames(
+                        valid.stream().map(PreparedUser::username).toList()));
+            }
+
+            List<User> users = new ArrayList<>(valid.size());
+            List<UserCredential> credentials = new ArrayList<>(valid.size());
+            for (PreparedUser preparedUser : valid) {
+                // Kayıtlı ya da dosyada daha önce geçen kullanıcı adı atlanır
+                if (!usernames.add(preparedUser.username())) {
+                    continue;
+                }
+
+                UserCredential credential = new UserCredential();
+                credential.setUser(preparedUser.user());
+                credential.setUsername(preparedUser.username());
+                credential.setPassword(preparedUser.passwordHash());
+                users.add(preparedUser.user());
+                credentials.add(credential);
+            }
+
+            userRepository.saveAll(users);
+            userCredentialRepository.saveAll(credentials);
+
+            ImportJob job = findJob(base.getJobId());
+            job.setRecordsCommitted(batch.getLastRecord());
+            job.setImported(job.getImported() + users.size());
+            job.setSkipped(job.getSkipped() + valid.size() - users.size());
+            job.setFailed(job.getFailed() + batch.getPrepared().size() - valid.size());
+            applyTimings(job, base, pipeline, startedAt);
+            importJobRepository.save(job);
+        });
+    }
+
+    private void finish(ImportJob base, ImportStatus status, String error, ImportPipeline<?> pipeline, long startedAt) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            ImportJob job = findJob(base.getJobId());
+            job.setStatus(status);
+            job.setLastError(error == null ? null : truncate(error));
+            job.setFinishedAt(LocalDateTime.now());
+            applyTimings(job, base, pipeline, startedAt);
+            importJobRepository.save(job);
+        });
+
+        log.info("User import {} finished with status {}", base.getJobId(), status);
+    }
+
+    // Devam ettirilen işlerde süreler önceki çalışmaların üstüne eklenir
+    private void applyTimings(ImportJob job, ImportJob base, ImportPipeline<?> pipeline, long startedAt) {
+        job.setParseMillis(base.getParseMillis() + pipeline.getParseMillis());
+        job.setPrepareMillis(base.getPrepareMillis() + pipeline.getPrepareMillis());
+        job.setWriteMillis(base.getWriteMillis() + pipeline.getWriteMillis());
+        job.setElapsedMillis(base.getElapsedMillis() + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private void ensureIdle() {
+        if (activeJobId.get() != 0) {
+            throw new InvalidRequestException("Import job " + activeJobId.get() + " is already running");
+        }
+    }
+
+    private Path resolveManifest(String manifest) {
+        Path root = Paths.get(importDir).toAbsolutePath().normalize();
+        Path path = root.resolve(manifest).normalize();
+        if (!path.startsWith(root)) {
+            throw new InvalidRequestException("Manifest must be inside the import directory");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new InvalidRequestException("Manifest not found: " + manifest);
+        }
+        if (!ManifestReader.supports(path)) {
+            throw new InvalidRequestException("Manifest must be a .csv, .ndjson or .jsonl file");
+        }
+        return path;
+    }
+
+    private ImportJob findJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    private String required(ManifestRecord record, String field) {
+        String value = record.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private LocalDateTime parseDob(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        LocalDateTime dob;
+        try {
+            dob = value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid dob: " + value);
+        }
+        if (!dob.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Date of birth must be in the past");
+        }
+        return dob;
+    }
+
+    private UserType parseUserType(String value) {
+        if (value == null) {
+            return UserType.USER;
+        }
+
+        try {
+            return UserType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid userType: " + value);
+        }
+    }
+
+    private String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private ImportJobDto mapToDto(ImportJob job) {
+        long processed = job.getImported() + job.getSkipped() + job.getFailed();
+        double recordsPerSecond = job.getElapsedMillis() > 0 ? processed * 1000.0 / job.getElapsedMillis() : 0;
+
+        return ImportJobDto.builder()
+                .jobId(job.getJobId())
+                .manifest(job.getManifest())
+                .status(job.getStatus())
+                .recordsCommitted(job.getRecordsCommitted())
+                .imported(job.getImported())
+                .skipped(job.getSkipped())
+                .failed(job.getFailed())
+                .parseMillis(job.getParseMillis())
+                .prepareMillis(job.getPrepareMillis())
+                .writeMillis(job.getWriteMillis())
+                .elapsedMillis(job.getElapsedMillis())
+                .recordsPerSecond(recordsPerSecond)
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    // username null ise kayıt geçersizdir ve failed olarak sayılır
+    private record PreparedUser(String username, String passwordHash, User user) {
+    }
+}
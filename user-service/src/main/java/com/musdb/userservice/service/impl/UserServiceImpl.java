@@ -1,18 +1,41 @@
 package com.musdb.userservice.service.impl;
 
+import com.musdb.userservice.config.CacheConfig;
+import com.musdb.userservice.dto.BatchLookupResultDto;
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FollowBatchRequestDto;
+import com.musdb.userservice.dto.FollowBatchResultDto;
 import com.musdb.userservice.dto.LoginRequestDto;
 import com.musdb.userservice.dto.LoginResponseDto;
 import com.musdb.userservice.dto.UserDto;
 import com.musdb.userservice.dto.UserRegistrationDto;
+import com.musdb.userservice.event.FollowChangedEvent;
+import com.musdb.userservice.event.UserDeletedEvent;
+import com.musdb.userservice.exception.InvalidRequestException;
 import com.musdb.userservice.exception.ResourceNotFoundException;
 import com.musdb.userservice.exception.UserAlreadyExistsException;
+import com.musdb.userservice.messaging.FollowChangedMessage;
+import com.musdb.userservice.messaging.Topics;
+import com.musdb.userservice.messaging.UserDeletedMessage;
 import com.musdb.userservice.model.*;
 import com.musdb.userservice.repository.UserCredentialRepository;
+import com.musdb.userservice.repository.UserFollowerBatchRepository;
 import com.musdb.userservice.repository.UserFollowerRepository;
 import com.musdb.userservice.repository.UserRepository;
+import com.musdb.userservice.search.UserSearchEngine;
 import com.musdb.userservice.security.JwtService;
+import com.musdb.userservice.security.UserRevocationCache;
+import com.musdb.userservice.service.OutboxService;
 import com.musdb.userservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,8 +43,18 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 
 //TODO: Validasyonlar servisten ayrılıp validation klasörü oluşturulup oradan olarak çekilsin.
@@ -35,6 +68,21 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final UserSearchEngine userSearchEngine;
+    private final UserRevocationCache userRevocationCache;
+    private final UserFollowerBatchRepository userFollowerBatchRepository;
+    private final CacheManager cacheManager;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${user.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${user.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${user.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
@@ -42,13 +90,25 @@ public class UserServiceImpl implements UserService {
                            UserFollowerRepository userFollowerRepository,
                            PasswordEncoder passwordEncoder,
                            AuthenticationManager authenticationManager,
-                           JwtService jwtService) {
+                           JwtService jwtService,
+                           UserSearchEngine userSearchEngine,
+                           UserRevocationCache userRevocationCache,
+                           UserFollowerBatchRepository userFollowerBatchRepository,
+                           CacheManager cacheManager,
+                           OutboxService outboxService,
+                           ApplicationEventPublisher applicationEventPublisher) {
         this.userRepository = userRepository;
         this.userCredentialRepository = userCredentialRepository;
         this.userFollowerRepository = userFollowerRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.userSearchEngine = userSearchEngine;
+        this.userRevocationCache = userRevocationCache;
+        this.userFollowerBatchRepository = userFollowerBatchRepository;
+        this.cacheManager = cacheManager;
+        this.outboxService = outboxService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     //TODO: Entity DTO set işlemleri MApper ile yapılacka.
@@ -67,6 +127,7 @@ public class UserServiceImpl implements UserService {
         user.setDescription(registrationDto.getDescription());
         user.setEmail(registrationDto.getEmail());
         user.setUserType(registrationDto.getUserType());
+        user.setIsDelete(false);
 
         User savedUser = userRepository.save(user);
 
@@ -78,7 +139,9 @@ public class UserServiceImpl implements UserService {
 
         userCredentialRepository.save(userCredential);
 
-        return mapToDto(savedUser);
+        UserDto userDto = mapToDto(savedUser);
+        outboxService.append(Topics.USER_REGISTERED, savedUser.getUserId(), userDto);
+        return userDto;
     }
 
     @Override
@@ -114,15 +177,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USER_PROFILES, key = "#userId", sync = true)
     public UserDto getUserById(Long userId) {
         User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        UserDto userDto = mapToDto(user);
-        userDto.setFollowerCount(getFollowerCount(userId));
-        userDto.setFollowingCount(getFollowingCount(userId));
+        // Sayaçlar kullanıcı satırında tutulduğu için profil tek sorguyla okunur
+        return mapToDto(user);
+    }
 
-        return userDto;
+    // Tek IN sorgusu; sonuç istek sırasına göre dizilir
+    @Override
+    @Transactional(readOnly = true)
+    public BatchLookupResultDto<UserDto> getUsersByIds(List<Long> userIds) {
+        List<Long> ids = normalizeLookupIds(userIds);
+
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findByUserIdInAndIsDeleteFalse(ids).forEach(user -> users.put(user.getUserId(), user));
+
+        return BatchLookupResultDto.<UserDto>builder()
+                .items(ids.stream().filter(users::containsKey).map(id -> mapToDto(users.get(id))).toList())
+                .missingIds(ids.stream().filter(id -> !users.containsKey(id)).toList())
+                .build();
     }
 
     @Override
@@ -139,20 +216,33 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserDto> getUsersByType(UserType userType) {
-        return userRepository.findByUserType(userType).stream()
+        return userRepository.findByUserTypeAndIsDeleteFalse(userType).stream()
                 .map(this::mapToDto)
                 .toList();
     }
 
     @Override
-    public List<UserDto> searchUsers(String query) {
-        return userRepository.findByNameContainingOrSurnameContaining(query, query).stream()
-                .map(this::mapToDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> searchUsers(String query, String cursor, Integer limit) {
+        long offset = OffsetCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+
+        // Bir fazla satır istenir, sonraki sayfanın varlığı ek sorgu olmadan anlaşılır
+        List<User> users = userSearchEngine.search(query.trim(), offset, pageSize + 1);
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+
+        return CursorPageDto.<UserDto>builder()
+                .items(users.stream().map(this::mapToDto).toList())
+                .nextCursor(hasNext ? OffsetCursor.encode(offset + pageSize) : null)
+                .build();
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#userId")
     public UserDto updateUser(Long userId, UserDto userDto) {
         User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -173,83 +263,181 @@ public class UserServiceImpl implements UserService {
 
         User updatedUser = userRepository.save(user);
 
-        return mapToDto(updatedUser);
+        UserDto updatedUserDto = mapToDto(updatedUser);
+        outboxService.append(Topics.USER_UPDATED, userId, updatedUserDto);
+        return updatedUserDto;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#userId")
     public void deleteUser(Long userId) {
         User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         user.setIsDelete(true);
         userRepository.save(user);
+
+        // Kullanıcının hâlâ geçerli token'ları bu instance'ta hemen reddedilir
+        userRevocationCache.revoke(userId);
+
+        // photo-service kullanıcının fotoğraflarını bu olayla toplu siler
+        outboxService.append(Topics.USER_DELETED, userId, new UserDeletedMessage(userId, LocalDateTime.now()));
+        applicationEventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 
 
     //TODO: Dönüş tipi değiştirilebilir.
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#followingUserId")
+    })
     public boolean followUser(Long userId, Long followingUserId) {
         if (userId.equals(followingUserId)) {
             return false;
         }
 
-        User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(followingUserId)) {
+            throw new ResourceNotFoundException("Following user not found");
+        }
 
-        User followingUser = userRepository.findByUserIdAndIsDeleteFalse(followingUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("Following user not found"));
+        // Sayaçlar sadece takip durumu gerçekten değiştiğinde artırılır. Satır yoksa çakışmaya dayanıklı insert kullanılır;
+        // aynı ikili için eşzamanlı iki ilk takipten sadece biri satır ekler, diğeri 0 döner
+        boolean changed = userFollowerRepository.startFollowing(userId, followingUserId) > 0
+                || userFollowerBatchRepository.insertFollow(userId, followingUserId, Timestamp.valueOf(LocalDateTime.now()));
+        if (!changed) {
+            return true;
+        }
 
-        UserFollowerKey key = new UserFollowerKey(userId, followingUserId);
+        userRepository.adjustFollowingCount(userId, 1);
+        userRepository.adjustFollowerCount(followingUserId, 1);
+        outboxService.append(Topics.USER_FOLLOWED, userId, new FollowChangedMessage(userId, followingUserId, LocalDateTime.now()));
+        applicationEventPublisher.publishEvent(new FollowChangedEvent(userId, followingUserId, true));
+        return true;
+    }
 
-        UserFollower userFollower = userFollowerRepository.findById(key)
-                .orElse(new UserFollower());
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.USER_PROFILES, key = "#followingUserId")
+    })
+    public boolean unfollowUser(Long userId, Long followingUserId) {
+        UserFollowerKey key = new UserFollowerKey(userId, followingUserId);
 
-        if (userFollower.getId() == null) {
-            userFollower.setId(key);
-            userFollower.setUser(user);
-            userFollower.setFollowingUser(followingUser);
+        if (!userFollowerRepository.existsById(key)) {
+            throw new ResourceNotFoundException("User not following");
         }
 
-        userFollower.setIsStillFollowing(true);
-
-        userFollowerRepository.save(userFollower);
+        if (userFollowerRepository.stopFollowing(userId, followingUserId) > 0) {
+            userRepository.adjustFollowingCount(userId, -1);
+            userRepository.adjustFollowerCount(followingUserId, -1);
+            outboxService.append(Topics.USER_UNFOLLOWED, userId, new FollowChangedMessage(userId, followingUserId, LocalDateTime.now()));
+            applicationEventPublisher.publishEvent(new FollowChangedEvent(userId, followingUserId, false));
+        }
         return true;
     }
 
+    // Tüm işlemler tek transaction'da JDBC batch ile uygulanır; sayaçlar sadece değişen ilişkiler için güncellenir
     @Override
     @Transactional
-    public boolean unfollowUser(Long userId, Long followingUserId) {
-        UserFollowerKey key = new UserFollowerKey(userId, followingUserId);
+    public FollowBatchResultDto applyFollowBatch(Long userId, FollowBatchRequestDto request) {
+        List<Long> follow = normalizeTargets(request.getFollow(), userId);
+        List<Long> unfollow = normalizeTargets(request.getUnfollow(), userId);
 
-        UserFollower userFollower = userFollowerRepository.findById(key)
-                .orElseThrow(() -> new ResourceNotFoundException("User not following"));
+        if (follow.size() + unfollow.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " operations are allowed per batch");
+        }
+        if (follow.stream().anyMatch(unfollow::contains)) {
+            throw new InvalidRequestException("A user cannot be followed and unfollowed in the same batch");
+        }
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
 
-        userFollower.setIsStillFollowing(false);
+        List<Long> notFound = new ArrayList<>();
+        if (!follow.isEmpty()) {
+            Set<Long> activeUserIds = new HashSet<>(userRepository.findActiveUserIds(follow));
+            notFound = follow.stream().filter(id -> !activeUserIds.contains(id)).toList();
+            follow = follow.stream().filter(activeUserIds::contains).toList();
+        }
 
-        userFollowerRepository.save(userFollower);
-        return true;
+        List<Long> followed = follow.isEmpty() ? List.of() : userFollowerBatchRepository.follow(userId, follow);
+        List<Long> unfollowed = unfollow.isEmpty() ? List.of() : userFollowerBatchRepository.unfollow(userId, unfollow);
+
+        SortedMap<Long, Long> followerDeltas = new TreeMap<>();
+        followed.forEach(id -> followerDeltas.put(id, 1L));
+        unfollowed.forEach(id -> followerDeltas.put(id, -1L));
+        if (!followerDeltas.isEmpty()) {
+            userFollowerBatchRepository.adjustFollowerCounts(followerDeltas);
+            userRepository.adjustFollowingCount(userId, followed.size() - unfollowed.size());
+
+            // Sayaçları değişen profiller önbellekten commit sonrası düşer
+            Cache profiles = cacheManager.getCache(CacheConfig.USER_PROFILES);
+            if (profiles != null) {
+                profiles.evict(userId);
+                followerDeltas.keySet().forEach(profiles::evict);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            followed.forEach(id -> {
+                outboxService.append(Topics.USER_FOLLOWED, userId, new FollowChangedMessage(userId, id, now));
+                applicationEventPublisher.publishEvent(new FollowChangedEvent(userId, id, true));
+            });
+            unfollowed.forEach(id -> {
+                outboxService.append(Topics.USER_UNFOLLOWED, userId, new FollowChangedMessage(userId, id, now));
+                applicationEventPublisher.publishEvent(new FollowChangedEvent(userId, id, false));
+            });
+        }
+
+        return FollowBatchResultDto.builder()
+                .followed(followed.stream().sorted().toList())
+                .unfollowed(unfollowed.stream().sorted().toList())
+                .notFound(notFound)
+                .build();
     }
 
+    // Cevap istek sırasını korur; tek bir indeksli IN sorgusu kullanılır
     @Override
-    public List<UserDto> getFollowers(Long userId) {
-        User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> getFollowingStatus(Long userId, List<Long> targetUserIds) {
+        List<Long> targets = targetUserIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (targets.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " user ids are allowed per request");
+        }
 
-        return userFollowerRepository.findByFollowingUserAndIsStillFollowingTrue(user).stream()
-                .map(following -> mapToDto(following.getUser()))
-                .collect(Collectors.toList());
+        Set<Long> followed = new HashSet<>(userFollowerRepository.findFollowedUserIds(userId, targets));
+
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        targets.forEach(id -> status.put(id, followed.contains(id)));
+        return status;
     }
 
     @Override
-    public List<UserDto> getFollowings(Long userId) {
-        User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> getFollowers(Long userId, String cursor, Integer limit) {
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        int pageSize = resolvePageSize(limit);
+        return toPage(userFollowerRepository.findFollowers(userId, KeysetCursor.decode(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> getFollowings(Long userId, String cursor, Integer limit) {
+        if (!userRepository.existsByUserIdAndIsDeleteFalse(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
 
-        return userFollowerRepository.findByUserAndIsStillFollowingTrue(user).stream()
-                .map(following -> mapToDto(following.getFollowingUser()))
-                .collect(Collectors.toList());
+        int pageSize = resolvePageSize(limit);
+        return toPage(userFollowerRepository.findFollowings(userId, KeysetCursor.decode(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
@@ -257,7 +445,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        return userFollowerRepository.countByFollowingUserAndIsStillFollowingTrue(user);
+        return user.getFollowerCount();
     }
 
     @Override
@@ -265,7 +453,50 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUserIdAndIsDeleteFalse(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        return userFollowerRepository.countByUserAndIsStillFollowingTrue(user);
+        return user.getFollowingCount();
+    }
+
+    // Bir fazla satır istenir, sonraki sayfanın varlığı ek sorgu olmadan anlaşılır
+    private CursorPageDto<UserDto> toPage(List<UserDto> users, int pageSize) {
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+
+        return CursorPageDto.<UserDto>builder()
+                .items(users)
+                .nextCursor(hasNext ? KeysetCursor.encode(users.get(users.size() - 1).getUserId()) : null)
+                .build();
+    }
+
+    private List<Long> normalizeLookupIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("At least one id is required");
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " ids are allowed per request");
+        }
+        return distinctIds;
+    }
+
+    // Tekrarlar ve kullanıcının kendisi çıkarılır, kilit sırası için artan sırada döner
+    private List<Long> normalizeTargets(List<Long> targetIds, Long userId) {
+        if (targetIds == null) {
+            return List.of();
+        }
+
+        return targetIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !id.equals(userId))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private int resolvePageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 
     //TODO: kaldırılıp mappera taşınacak.
@@ -283,6 +514,8 @@ public class UserServiceImpl implements UserService {
                 .userType(user.getUserType())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
+                .followerCount(user.getFollowerCount())
+                .followingCount(user.getFollowingCount())
                 .build();
     }
 }
@@ -0,0 +1,101 @@
+-- Flyway'den önce şema Hibernate ddl-auto ile oluşturuluyordu. Bu script o şemanın aynısıdır ve
+-- IF NOT EXISTS ile yazıldığı için mevcut veritabanlarında da çalışır (baseline-version: 0).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS import_jobs_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id          bigint NOT NULL,
+    name             varchar(255),
+    surname          varchar(255),
+    email            varchar(255),
+    dob              timestamp(6),
+    description      varchar(255),
+    profile_photo_id bigint,
+    user_type        varchar(255) CHECK (user_type IN ('ADMIN', 'USER', 'ARTIST')),
+    is_delete        boolean,
+    follower_count   bigint DEFAULT 0 NOT NULL,
+    following_count  bigint DEFAULT 0 NOT NULL,
+    created_at       timestamp(6),
+    updated_at       timestamp(6),
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_credentials (
+    user_id  bigint NOT NULL,
+    username varchar(255) UNIQUE,
+    password varchar(255),
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_follower (
+    following_user_id  bigint NOT NULL,
+    user_id            bigint NOT NULL,
+    is_still_following boolean,
+    created_at         timestamp(6),
+    PRIMARY KEY (following_user_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    event_id     bigint       NOT NULL,
+    topic        varchar(100) NOT NULL,
+    message_key  varchar(100),
+    payload      text         NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    published_at timestamp(6),
+    PRIMARY KEY (event_id)
+);
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id            bigint       NOT NULL,
+    manifest          varchar(500) NOT NULL,
+    status            varchar(20)  NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED')),
+    records_committed bigint       NOT NULL,
+    imported          bigint       NOT NULL,
+    skipped           bigint       NOT NULL,
+    failed            bigint       NOT NULL,
+    parse_millis      bigint       NOT NULL,
+    prepare_millis    bigint       NOT NULL,
+    write_millis      bigint       NOT NULL,
+    elapsed_millis    bigint       NOT NULL,
+    last_error        varchar(500),
+    created_at        timestamp(6) NOT NULL,
+    updated_at        timestamp(6),
+    finished_at       timestamp(6),
+    PRIMARY KEY (job_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_follower_following_user_id_user_id ON user_follower (following_user_id, user_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at_event_id ON outbox_events (published_at, event_id);
+
+-- UserRepository.searchByTrigram ile aynı ifade olmalı, aksi halde index kullanılmaz
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING gin ((coalesce(name, '') || ' ' || coalesce(surname, '')) gin_trgm_ops);
+
+-- Kısıt adları Hibernate'in ürettikleriyle aynıdır; mevcut veritabanlarında zaten varsa atlanır
+DO $$
+BEGIN
+    ALTER TABLE user_credentials ADD CONSTRAINT fk98kxj78ausx1xo94eq4mkjm9q FOREIGN KEY (user_id) REFERENCES users;
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+DO $$
+BEGIN
+    ALTER TABLE user_follower ADD CONSTRAINT fkkuq1d3rrcufy6li9m0t725vdf FOREIGN KEY (following_user_id) REFERENCES users;
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+DO $$
+BEGIN
+    ALTER TABLE user_follower ADD CONSTRAINT fk31vprrcmt5cwijol72deguk3y FOREIGN KEY (user_id) REFERENCES users;
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+-- IDENTITY'den sequence'a geçişte eski kayıtların id'leri sequence'ın önünde kalır; sequence sadece gerideyse ileri alınır
+SELECT setval('users_seq', (SELECT max(user_id) FROM users) + 50)
+WHERE (SELECT max(user_id) FROM users) > (SELECT last_value FROM users_seq);
+
+SELECT setval('outbox_events_seq', (SELECT max(event_id) FROM outbox_events) + 50)
+WHERE (SELECT max(event_id) FROM outbox_events) > (SELECT last_value FROM outbox_events_seq);
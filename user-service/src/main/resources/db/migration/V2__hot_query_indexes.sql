@@ -0,0 +1,29 @@
+-- Büyük tablolarda yazmaları kilitlememek için index'ler CONCURRENTLY oluşturulur; bu yüzden script transaction dışında çalışır.
+-- Yarıda kalan bir CONCURRENTLY işlemi geçersiz (invalid) index bırakır; her index oluşturulmadan önce silindiği için
+-- başarısız bir çalıştırmadan sonra (flyway repair) script baştan tekrar çalıştırılabilir.
+
+-- Sorguların tamamı is_delete = false ile filtrelenir; silinmiş kullanıcılar index'e hiç girmez
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_active_user_type_user_id;
+CREATE INDEX CONCURRENTLY idx_users_active_user_type_user_id
+    ON users (user_type, user_id) WHERE is_delete = false;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_active_full_name_trgm;
+CREATE INDEX CONCURRENTLY idx_users_active_full_name_trgm
+    ON users USING gin ((coalesce(name, '') || ' ' || coalesce(surname, '')) gin_trgm_ops) WHERE is_delete = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_full_name_trgm;
+
+-- Birincil anahtar (following_user_id, user_id) sırasındadır; user_id ile başlayan takip edilenler sorguları için index yoktu.
+-- is_still_following eşitlik koşulu olarak ortada durur, böylece sıralama user_id / following_user_id üzerinden index'ten okunur.
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_follower_following_user_id_active;
+CREATE INDEX CONCURRENTLY idx_user_follower_following_user_id_active
+    ON user_follower (following_user_id, is_still_following, user_id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_follower_user_id_active;
+CREATE INDEX CONCURRENTLY idx_user_follower_user_id_active
+    ON user_follower (user_id, is_still_following, following_user_id);
+-- Birincil anahtarla aynı kolonlar, sadece yazma maliyeti
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_follower_following_user_id_user_id;
+
+-- OutboxRelay sadece yayınlanmamış olayları okur; yayınlanmışlar temizlenene kadar bu index'e girmez
+DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_events_unpublished_event_id;
+CREATE INDEX CONCURRENTLY idx_outbox_events_unpublished_event_id
+    ON outbox_events (event_id) WHERE published_at IS NULL;
@@ -0,0 +1,13 @@
+-- Akışların kalıcı kaynağı: photo.uploaded olaylarından her yazarın son fotoğrafları (user.feed.author-posts-size kadar).
+-- Bellekteki akış yoksa (yeniden başlatma, boşta kalma, boyut sınırı) okuma anında buradan yeniden kurulur.
+CREATE TABLE IF NOT EXISTS feed_posts (
+    photo_id       bigint       NOT NULL,
+    author_user_id bigint       NOT NULL,
+    photo_name     varchar(255),
+    created_at     timestamp(6) NOT NULL,
+    PRIMARY KEY (photo_id)
+);
+
+-- Yeniden kurma ve yazar başına kırpma sorguları yazarın fotoğraflarını yeniden eskiye index'ten okur
+CREATE INDEX IF NOT EXISTS idx_feed_posts_author_created_at
+    ON feed_posts (author_user_id, created_at DESC, photo_id DESC);
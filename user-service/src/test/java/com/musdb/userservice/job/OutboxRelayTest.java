@@ -0,0 +1,103 @@
+package com.musdb.userservice.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.musdb.userservice.dto.UserDto;
+import com.musdb.userservice.dto.UserRegistrationDto;
+import com.musdb.userservice.exception.UserAlreadyExistsException;
+import com.musdb.userservice.messaging.InMemoryMessagePublisher;
+import com.musdb.userservice.messaging.Topics;
+import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.repository.OutboxEventRepository;
+import com.musdb.userservice.service.OutboxService;
+import com.musdb.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "user.outbox.relay.initial-delay=PT1H")
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private InMemoryMessagePublisher messagePublisher;
+
+	@BeforeEach
+	void setUp() {
+		outboxRelay.relay();
+		messagePublisher.clear();
+	}
+
+	@Test
+	void publishesCommittedChangesInOrderOnce() {
+		UserDto alice = userService.registerUser(registration("outbox-alice"));
+		UserDto bob = userService.registerUser(registration("outbox-bob"));
+		userService.followUser(alice.getUserId(), bob.getUserId());
+
+		outboxRelay.relay();
+		outboxRelay.relay();
+
+		List<InMemoryMessagePublisher.PublishedMessage> messages = messagePublisher.getMessages();
+		assertEquals(List.of(Topics.USER_REGISTERED, Topics.USER_REGISTERED, Topics.USER_FOLLOWED),
+				messages.stream().map(InMemoryMessagePublisher.PublishedMessage::getTopic).toList());
+		assertEquals(String.valueOf(alice.getUserId()), messages.get(2).getKey());
+		assertEquals(bob.getUserId().longValue(), ((JsonNode) messages.get(2).getPayload()).get("followingUserId").asLong());
+		assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+	}
+
+	@Test
+	void rolledBackChangeIsNotPublished() {
+		userService.registerUser(registration("outbox-carol"));
+		assertThrows(UserAlreadyExistsException.class, () -> userService.registerUser(registration("outbox-carol")));
+
+		outboxRelay.relay();
+
+		assertEquals(1, messagePublisher.getMessages().size());
+	}
+
+	@Test
+	void replayRepublishesEventsAfterCursor() {
+		UserDto dave = userService.registerUser(registration("outbox-dave"));
+		outboxRelay.relay();
+		Long cursor = Long.valueOf(messagePublisher.getMessages().get(0).getMessageId().replaceAll(".*-", ""));
+		userService.updateUser(dave.getUserId(), dave);
+		outboxRelay.relay();
+		messagePublisher.clear();
+
+		assertEquals(1, outboxService.replayAfter(cursor));
+		outboxRelay.relay();
+
+		assertEquals(List.of(Topics.USER_UPDATED),
+				messagePublisher.getMessages().stream().map(InMemoryMessagePublisher.PublishedMessage::getTopic).toList());
+		assertEquals(Topics.USER_UPDATED, outboxService.getEvents(String.valueOf(cursor), 10).getItems().get(0).getTopic());
+	}
+
+	private UserRegistrationDto registration(String username) {
+		UserRegistrationDto dto = new UserRegistrationDto();
+		dto.setUsername(username);
+		dto.setPassword("secret-password");
+		dto.setName("Test");
+		dto.setSurname("User");
+		dto.setEmail(username + "@example.com");
+		dto.setUserType(UserType.USER);
+		return dto;
+	}
+}
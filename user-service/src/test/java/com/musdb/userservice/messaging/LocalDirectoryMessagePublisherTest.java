@@ -0,0 +1,51 @@
+package com.musdb.userservice.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class LocalDirectoryMessagePublisherTest {
+	@TempDir
+	private Path brokerDir;
+
+	private final LocalDirectoryMessagePublisher publisher = new LocalDirectoryMessagePublisher(new ObjectMapper());
+
+	@Test
+	void removesMessagesOlderThanRetention() throws Exception {
+		ReflectionTestUtils.setField(publisher, "brokerDir", brokerDir.toString());
+		ReflectionTestUtils.setField(publisher, "retention", Duration.ofHours(1));
+
+		// Tüketicisi olmayan topic'te eski bir mesaj ve .failed altında eski bir mesaj
+		Path stale = Files.createDirectories(brokerDir.resolve(Topics.USER_UPDATED)).resolve("0-stale.json");
+		Files.writeString(stale, "{}");
+		Path failed = Files.createDirectories(brokerDir.resolve(Topics.USER_DELETED).resolve(".failed")).resolve("0-failed.json");
+		Files.writeString(failed, "{}");
+		FileTime old = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+		Files.setLastModifiedTime(stale, old);
+		Files.setLastModifiedTime(failed, old);
+
+		publisher.publish("m-1", Topics.USER_UPDATED, "1", Map.of("userId", 1));
+
+		publisher.removeExpired();
+
+		assertFalse(Files.exists(stale));
+		assertFalse(Files.exists(failed));
+		try (Stream<Path> files = Files.list(brokerDir.resolve(Topics.USER_UPDATED))) {
+			List<Path> remaining = files.toList();
+			assertEquals(1, remaining.size());
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.musdb.userservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Şema Flyway migration'larıyla kurulur, sorgular Hibernate'in ürettiği SQL'in aynısıdır.
+// Docker yoksa test atlanır.
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.database=postgresql",
+		"spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+		"spring.datasource.driver-class-name=org.postgresql.Driver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+// VACUUM transaction içinde çalışmaz
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanRegressionTest {
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private static boolean seeded;
+
+	// Boş ya da vacuum görmemiş tabloda planlayıcının index seçimi üretimdekiyle aynı olmaz;
+	// temsili veri container başına bir kez yüklenir ve VACUUM ANALYZE ile istatistikler oluşturulur
+	@BeforeEach
+	void seed() {
+		if (seeded) {
+			return;
+		}
+		jdbcTemplate.execute("insert into users (user_id, name, surname, user_type, is_delete, follower_count, following_count, created_at) " +
+				"select i, 'Name' || i, 'Surname' || (i % 100), " +
+				"case when i % 20 = 0 then 'ARTIST' when i % 50 = 1 then 'ADMIN' else 'USER' end, " +
+				"i % 10 = 0, i % 5000, 5, now() from generate_series(1, 10000) i");
+		jdbcTemplate.execute("insert into user_follower (following_user_id, user_id, is_still_following, created_at) " +
+				"select (i * 7919) % 10000 + 1, i / 5 + 1, i % 10 <> 0, now() from generate_series(0, 49999) i");
+		jdbcTemplate.execute("insert into outbox_events (event_id, topic, payload, created_at, published_at) " +
+				"select i, 'user-events', '{}', now(), case when i > 9900 then null else now() end " +
+				"from generate_series(1, 10000) i");
+		jdbcTemplate.execute("vacuum analyze users, user_follower, outbox_events");
+		seeded = true;
+	}
+
+	static Stream<Arguments> hotQueries() {
+		return Stream.of(
+				Arguments.of("findByUserTypeAndIsDeleteFalse", "idx_users_active_user_type_user_id",
+						"select u1_0.user_id, u1_0.name from users u1_0 " +
+								"where u1_0.user_type = 'ARTIST' and not(u1_0.is_delete)"),
+				Arguments.of("searchByTrigram", "idx_users_active_full_name_trgm",
+						"select u.* from users u where u.is_delete = false " +
+								"and ((coalesce(u.name, '') || ' ' || coalesce(u.surname, '')) ilike '%ali%' " +
+								"or 'ali' <% (coalesce(u.name, '') || ' ' || coalesce(u.surname, ''))) " +
+								"order by word_similarity('ali', coalesce(u.name, '') || ' ' || coalesce(u.surname, '')) desc, " +
+								"u.user_id desc limit 20 offset 0"),
+				Arguments.of("findFollowers", "idx_user_follower_following_user_id_active",
+						"select u1_0.user_id, u1_0.name from user_follower uf1_0 " +
+								"join users u1_0 on u1_0.user_id = uf1_0.user_id " +
+								"where uf1_0.following_user_id = 1 and uf1_0.is_still_following = true " +
+								"and u1_0.is_delete = false and u1_0.user_id < 1000 " +
+								"order by u1_0.user_id desc fetch first 21 rows only"),
+				Arguments.of("findFollowerIds", "idx_user_follower_following_user_id_active",
+						"select uf1_0.user_id from user_follower uf1_0 " +
+								"where uf1_0.following_user_id = 1 and uf1_0.is_still_following = true"),
+				Arguments.of("findFollowings", "idx_user_follower_user_id_active",
+						"select fu1_0.user_id, fu1_0.name from user_follower uf1_0 " +
+								"join users fu1_0 on fu1_0.user_id = uf1_0.following_user_id " +
+								"where uf1_0.user_id = 1 and uf1_0.is_still_following = true " +
+								"and fu1_0.is_delete = false and fu1_0.user_id < 1000 " +
+								"order by fu1_0.user_id desc fetch first 21 rows only"),
+				Arguments.of("findFollowedUserIds", "idx_user_follower_user_id_active",
+						"select uf1_0.following_user_id from user_follower uf1_0 " +
+								"where uf1_0.user_id = 1 and uf1_0.following_user_id in (2, 3) " +
+								"and uf1_0.is_still_following = true"),
+				Arguments.of("findFollowedUserIdsWithFollowerCountAtLeast", "idx_user_follower_user_id_active",
+						"select fu1_0.user_id from user_follower uf1_0 " +
+								"join users fu1_0 on fu1_0.user_id = uf1_0.following_user_id " +
+								"where uf1_0.user_id = 1 and uf1_0.is_still_following = true " +
+								"and fu1_0.is_delete = false and fu1_0.follower_count >= 1000 " +
+								"order by fu1_0.follower_count desc fetch first 50 rows only"),
+				Arguments.of("findUnpublishedForUpdate", "idx_outbox_events_unpublished_event_id",
+						"select oe1_0.event_id, oe1_0.payload from outbox_events oe1_0 " +
+								"where oe1_0.published_at is null order by oe1_0.event_id " +
+								"fetch first 100 rows only for no key update skip locked"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("hotQueries")
+	void hotQueryUsesIndex(String query, String index, String sql) {
+		List<String> plan = explain(sql);
+		String planText = String.join("\n", plan);
+
+		assertTrue(plan.stream().noneMatch(line -> line.contains("Seq Scan")), () -> query + " falls back to a sequential scan:\n" + planText);
+		assertTrue(planText.contains(index), () -> query + " does not use " + index + ":\n" + planText);
+	}
+
+	// Bu kadar küçük tablolarda seq scan gerçekten ucuzdur; kapatıldığında uygun index yoksa planlayıcı yine seq scan'e düşer
+	private List<String> explain(String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("set enable_seqscan = off");
+				List<String> plan = new ArrayList<>();
+				try (ResultSet resultSet = statement.executeQuery("explain " + sql)) {
+					while (resultSet.next()) {
+						plan.add(resultSet.getString(1));
+					}
+				}
+				statement.execute("reset enable_seqscan");
+				return plan;
+			}
+		});
+	}
+}
@@ -0,0 +1,78 @@
+package com.musdb.userservice.repository;
+
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.model.UserCredential;
+import com.musdb.userservice.model.UserType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Satır sayısı -Dbenchmark.rows ile büyütülebilir; hız log'a yazılır, test sadece batch'in devrede olduğunu doğrular
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class UserBulkInsertBenchmarkTest {
+	private static final Logger log = LoggerFactory.getLogger(UserBulkInsertBenchmarkTest.class);
+	private static final int ROWS = Integer.getInteger("benchmark.rows", 2000);
+	private static final int CHUNK_SIZE = 500;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserCredentialRepository userCredentialRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void insertsUsersAndCredentialsInBatches() {
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		long startedAt = System.nanoTime();
+		for (int from = 0; from < ROWS; from += CHUNK_SIZE) {
+			List<User> users = new ArrayList<>();
+			List<UserCredential> credentials = new ArrayList<>();
+			for (int i = from; i < Math.min(from + CHUNK_SIZE, ROWS); i++) {
+				User user = new User();
+				user.setName("Bulk" + i);
+				user.setSurname("User");
+				user.setUserType(UserType.USER);
+				user.setIsDelete(false);
+				users.add(user);
+
+				UserCredential credential = new UserCredential();
+				credential.setUser(user);
+				credential.setUsername("bulk-user-" + i);
+				credential.setPassword("{noop}secret");
+				credentials.add(credential);
+			}
+
+			userRepository.saveAll(users);
+			userCredentialRepository.saveAll(credentials);
+			entityManager.flush();
+			entityManager.clear();
+		}
+		long elapsedNanos = System.nanoTime() - startedAt;
+
+		long statements = statistics.getPrepareStatementCount();
+		log.info("Inserted {} users and {} credentials in {} ms ({} rows/s, {} statements)",
+				ROWS, ROWS, elapsedNanos / 1_000_000, (long) (2L * ROWS * 1e9 / elapsedNanos), statements);
+
+		assertEquals(2L * ROWS, statistics.getEntityInsertCount());
+		// Batch olmadan satır başına bir statement gerekirdi
+		assertTrue(statements < ROWS / 10, "Expected batched inserts but prepared " + statements + " statements");
+	}
+}
@@ -0,0 +1,96 @@
+package com.musdb.userservice.repository;
+
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.model.UserFollower;
+import com.musdb.userservice.model.UserFollowerKey;
+import com.musdb.userservice.model.UserType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(UserFollowerBatchRepository.class)
+class UserFollowerBatchRepositoryTest {
+
+	@Autowired
+	private UserFollowerBatchRepository userFollowerBatchRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserFollowerRepository userFollowerRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void onlyChangedRelationsAreReportedAndCounted() {
+		User caller = saveUser("Caller", 0);
+		User refollowed = saveUser("Refollowed", 0);
+		User alreadyFollowed = saveUser("AlreadyFollowed", 1);
+		User newlyFollowed = saveUser("NewlyFollowed", 0);
+		User unfollowed = saveUser("Unfollowed", 1);
+		User notFollowed = saveUser("NotFollowed", 0);
+		saveFollow(caller, refollowed, false);
+		saveFollow(caller, alreadyFollowed, true);
+		saveFollow(caller, unfollowed, true);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<Long> followed = userFollowerBatchRepository.follow(caller.getUserId(),
+				List.of(refollowed.getUserId(), alreadyFollowed.getUserId(), newlyFollowed.getUserId()));
+		List<Long> stopped = userFollowerBatchRepository.unfollow(caller.getUserId(),
+				List.of(unfollowed.getUserId(), notFollowed.getUserId()));
+
+		assertEquals(List.of(refollowed.getUserId(), newlyFollowed.getUserId()), followed.stream().sorted().toList());
+		assertEquals(List.of(unfollowed.getUserId()), stopped);
+
+		TreeMap<Long, Long> deltas = new TreeMap<>();
+		followed.forEach(id -> deltas.put(id, 1L));
+		stopped.forEach(id -> deltas.put(id, -1L));
+		userFollowerBatchRepository.adjustFollowerCounts(deltas);
+		entityManager.clear();
+
+		assertEquals(1L, followerCount(refollowed));
+		assertEquals(1L, followerCount(alreadyFollowed));
+		assertEquals(1L, followerCount(newlyFollowed));
+		assertEquals(0L, followerCount(unfollowed));
+		assertEquals(0L, followerCount(notFollowed));
+		assertEquals(List.of(refollowed.getUserId(), alreadyFollowed.getUserId(), newlyFollowed.getUserId()),
+				userFollowerRepository.findFollowedUserIds(caller.getUserId(), List.of(refollowed.getUserId(),
+						alreadyFollowed.getUserId(), newlyFollowed.getUserId(), unfollowed.getUserId())).stream().sorted().toList());
+	}
+
+	private long followerCount(User user) {
+		return userRepository.findById(user.getUserId()).orElseThrow().getFollowerCount();
+	}
+
+	private void saveFollow(User user, User followed, boolean active) {
+		UserFollower userFollower = new UserFollower();
+		userFollower.setId(new UserFollowerKey(user.getUserId(), followed.getUserId()));
+		userFollower.setUser(user);
+		userFollower.setFollowingUser(followed);
+		userFollower.setIsStillFollowing(active);
+		userFollowerRepository.save(userFollower);
+	}
+
+	private User saveUser(String name, long followerCount) {
+		User user = new User();
+		user.setName(name);
+		user.setSurname("Test");
+		user.setUserType(UserType.USER);
+		user.setIsDelete(false);
+		user.setFollowerCount(followerCount);
+		return userRepository.save(user);
+	}
+}
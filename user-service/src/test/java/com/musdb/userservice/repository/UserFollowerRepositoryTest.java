@@ -0,0 +1,97 @@
+package com.musdb.userservice.repository;
+
+import com.musdb.userservice.dto.UserDto;
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.model.UserFollower;
+import com.musdb.userservice.model.UserFollowerKey;
+import com.musdb.userservice.model.UserType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class UserFollowerRepositoryTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserFollowerRepository userFollowerRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void followerPageUsesOneStatementRegardlessOfSize() {
+		assertEquals(1, statementsForFollowers(5));
+		assertEquals(1, statementsForFollowers(50));
+	}
+
+	@Test
+	void followerPagesAreOrderedAndContinueFromCursor() {
+		User celebrity = saveUser("Celebrity");
+		List<Long> followerIds = addFollowers(celebrity, 5).stream().map(User::getUserId).sorted().toList();
+		entityManager.flush();
+		entityManager.clear();
+
+		List<UserDto> firstPage = userFollowerRepository.findFollowers(celebrity.getUserId(), Long.MAX_VALUE, Limit.of(3));
+		List<UserDto> secondPage = userFollowerRepository.findFollowers(celebrity.getUserId(), firstPage.get(2).getUserId(), Limit.of(3));
+
+		assertEquals(List.of(followerIds.get(4), followerIds.get(3), followerIds.get(2)), firstPage.stream().map(UserDto::getUserId).toList());
+		assertEquals(List.of(followerIds.get(1), followerIds.get(0)), secondPage.stream().map(UserDto::getUserId).toList());
+	}
+
+	private long statementsForFollowers(int followerCount) {
+		User celebrity = saveUser("Celebrity");
+		addFollowers(celebrity, followerCount);
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics.clear();
+		List<UserDto> followers = userFollowerRepository.findFollowers(celebrity.getUserId(), Long.MAX_VALUE, Limit.of(followerCount));
+
+		assertEquals(followerCount, followers.size());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private List<User> addFollowers(User followed, int count) {
+		return IntStream.range(0, count).mapToObj(i -> {
+			User follower = saveUser("Follower" + i);
+			UserFollower userFollower = new UserFollower();
+			userFollower.setId(new UserFollowerKey(follower.getUserId(), followed.getUserId()));
+			userFollower.setUser(follower);
+			userFollower.setFollowingUser(followed);
+			userFollower.setIsStillFollowing(true);
+			userFollowerRepository.save(userFollower);
+			return follower;
+		}).toList();
+	}
+
+	private User saveUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setSurname("Test");
+		user.setUserType(UserType.USER);
+		user.setIsDelete(false);
+		return userRepository.save(user);
+	}
+}
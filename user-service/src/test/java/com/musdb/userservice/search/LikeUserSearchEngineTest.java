@@ -0,0 +1,58 @@
+package com.musdb.userservice.search;
+
+import com.musdb.userservice.model.User;
+import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LikeUserSearchEngine.class)
+class LikeUserSearchEngineTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserSearchEngine userSearchEngine;
+
+	@BeforeEach
+	void setUp() {
+		save("Ada", "Lovelace", false);
+		save("Adam", "Smith", false);
+		save("Lena", "Granada", false);
+		save("Ada", "Deleted", true);
+	}
+
+	@Test
+	void ranksExactThenPrefixThenContains() {
+		assertEquals(List.of("Ada Lovelace", "Adam Smith", "Lena Granada"), names(userSearchEngine.search("ada", 0, 10)));
+	}
+
+	@Test
+	void matchesFullName() {
+		assertEquals(List.of("Ada Lovelace"), names(userSearchEngine.search("ada love", 0, 10)));
+	}
+
+	private void save(String name, String surname, boolean deleted) {
+		User user = new User();
+		user.setName(name);
+		user.setSurname(surname);
+		user.setUserType(UserType.USER);
+		user.setIsDelete(deleted);
+		userRepository.save(user);
+	}
+
+	private List<String> names(List<User> users) {
+		return users.stream().map(user -> user.getName() + " " + user.getSurname()).toList();
+	}
+}
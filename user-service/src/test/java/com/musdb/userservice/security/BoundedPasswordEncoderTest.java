@@ -0,0 +1,159 @@
+package com.musdb.userservice.security;
+
+import com.musdb.userservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+	@Test
+	void shedsRequestsWhenQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1,
+				Duration.ofSeconds(10), Duration.ofSeconds(2));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		encoder.bindTo(registry);
+
+		try {
+			CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+			awaitGauge(registry, "user.password.hash.active", 1);
+			CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+			awaitGauge(registry, "user.password.hash.queue", 1);
+
+			TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class, () -> encoder.matches("c", "c"));
+			assertEquals(2, rejected.getRetryAfterSeconds());
+			assertEquals(1.0, registry.get("user.password.hash.rejected").functionCounter().count());
+
+			release.countDown();
+			assertTrue(running.get(5, TimeUnit.SECONDS));
+			assertTrue(queued.get(5, TimeUnit.SECONDS));
+			assertEquals(2, registry.get("user.password.hash").tag("operation", "matches").functionTimer().count());
+		} finally {
+			release.countDown();
+			encoder.shutdown();
+		}
+	}
+
+	@Test
+	void upgradesHashesStoredWithLowerCost() {
+		String weak = new BCryptPasswordEncoder(4).encode("password123");
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4,
+				Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+		try {
+			assertTrue(encoder.matches("password123", weak));
+			assertTrue(encoder.upgradeEncoding(weak));
+			assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+		} finally {
+			encoder.shutdown();
+		}
+	}
+
+	@Test
+	void dropsBackgroundEncodeWhenQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1,
+				Duration.ofSeconds(10), Duration.ofSeconds(1));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		encoder.bindTo(registry);
+
+		try {
+			CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+			awaitGauge(registry, "user.password.hash.active", 1);
+			CompletableFuture<String> queued = new CompletableFuture<>();
+			encoder.encodeInBackground("b", queued::complete);
+			awaitGauge(registry, "user.password.hash.queue", 1);
+
+			// Yükseltme kuyruğa sığmazsa istisna yerine atlanır ve 429 sayacına yansımaz
+			CompletableFuture<String> dropped = new CompletableFuture<>();
+			encoder.encodeInBackground("c", dropped::complete);
+			assertEquals(0.0, registry.get("user.password.hash.rejected").functionCounter().count());
+
+			release.countDown();
+			assertTrue(running.get(5, TimeUnit.SECONDS));
+			assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+			assertFalse(dropped.isDone());
+		} finally {
+			release.countDown();
+			encoder.shutdown();
+		}
+	}
+
+	@Test
+	void upgradesWeakHashAfterLoginWithoutBlockingIt() throws Exception {
+		String weak = new BCryptPasswordEncoder(4).encode("password123");
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4,
+				Duration.ofSeconds(10), Duration.ofSeconds(1));
+		CompletableFuture<String> upgraded = new CompletableFuture<>();
+		CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null) {
+			@Override
+			public UserDetails loadUserByUsername(String username) {
+				return User.withUsername(username).password(weak).roles("USER").build();
+			}
+
+			@Override
+			public UserDetails updatePassword(UserDetails user, String newPassword) {
+				upgraded.complete(newPassword);
+				return user;
+			}
+		};
+		PasswordUpgradingAuthenticationProvider provider = new PasswordUpgradingAuthenticationProvider(encoder, userDetailsService);
+
+		try {
+			Authentication result = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("ali", "password123"));
+
+			assertTrue(result.isAuthenticated());
+			String newHash = upgraded.get(5, TimeUnit.SECONDS);
+			assertTrue(encoder.matches("password123", newHash));
+			assertFalse(encoder.upgradeEncoding(newHash));
+		} finally {
+			encoder.shutdown();
+		}
+	}
+
+	private void awaitGauge(SimpleMeterRegistry registry, String name, double expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (registry.get(name).gauge().value() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static final class BlockingEncoder implements PasswordEncoder {
+		private final CountDownLatch release;
+
+		BlockingEncoder(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return rawPassword.toString().equals(encodedPassword);
+		}
+	}
+}
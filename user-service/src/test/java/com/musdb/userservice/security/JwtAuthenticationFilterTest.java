@@ -0,0 +1,138 @@
+package com.musdb.userservice.security;
+
+import com.musdb.userservice.dto.UserDto;
+import com.musdb.userservice.dto.UserRegistrationDto;
+import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.service.UserService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "jwt.revocation.ttl=300ms")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${jwt.secret}")
+	private String secret;
+
+	@Test
+	void userCanOnlyReadOwnProfile() throws Exception {
+		UserDto user = register("filter-self");
+		UserDto other = register("filter-other");
+		String token = token(user);
+
+		getUser(user.getUserId(), token, status().isOk());
+		getUser(other.getUserId(), token, status().isForbidden());
+	}
+
+	@Test
+	void batchLookupHidesOtherUsersPrivateFields() throws Exception {
+		UserDto user = register("filter-batch-self");
+		UserDto other = register("filter-batch-other");
+
+		mockMvc.perform(post("/api/users/batch")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(user))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [" + user.getUserId() + ", " + other.getUserId() + "]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].email").value("filter-batch-self@example.com"))
+				.andExpect(jsonPath("$.items[0].dob").exists())
+				.andExpect(jsonPath("$.items[1].userId").value(other.getUserId()))
+				.andExpect(jsonPath("$.items[1].name").value("Filter"))
+				.andExpect(jsonPath("$.items[1].email").doesNotExist())
+				.andExpect(jsonPath("$.items[1].dob").doesNotExist());
+	}
+
+	@Test
+	void missingMalformedAndExpiredTokensAreUnauthorized() throws Exception {
+		UserDto user = register("filter-expired");
+		String expired = Jwts.builder()
+				.setSubject("filter-user")
+				.claim("userId", user.getUserId())
+				.claim("userType", UserType.USER.name())
+				.setExpiration(new Date(System.currentTimeMillis() - 60_000))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+				.compact();
+
+		mockMvc.perform(get("/api/users/{userId}", user.getUserId())).andExpect(status().isUnauthorized());
+		getUser(user.getUserId(), "not-a-jwt", status().isUnauthorized());
+		getUser(user.getUserId(), "eyJhbGciOiJIUzI1NiJ9.%%%.sig", status().isUnauthorized());
+		getUser(user.getUserId(), expired, status().isUnauthorized());
+	}
+
+	@Test
+	void deletedUsersTokenIsRejectedImmediatelyOnThisInstance() throws Exception {
+		UserDto user = register("filter-deleted-here");
+		String token = token(user);
+		getUser(user.getUserId(), token, status().isOk());
+
+		userService.deleteUser(user.getUserId());
+
+		getUser(user.getUserId(), token, status().isUnauthorized());
+	}
+
+	@Test
+	void deletedUsersTokenIsRejectedWithinTtlWhenDeletedElsewhere() throws Exception {
+		UserDto user = register("filter-deleted-elsewhere");
+		String token = token(user);
+		getUser(user.getUserId(), token, status().isOk());
+
+		// Silme başka bir instance'ta yapıldı: bu instance'ın önbelleği haberdar değil
+		jdbcTemplate.update("update users set is_delete = true where user_id = ?", user.getUserId());
+		Thread.sleep(400);
+
+		getUser(user.getUserId(), token, status().isUnauthorized());
+	}
+
+	private void getUser(Long userId, String token, ResultMatcher expected) throws Exception {
+		mockMvc.perform(get("/api/users/{userId}", userId).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(expected);
+	}
+
+	private String token(UserDto user) {
+		return jwtService.generateToken("filter-user", user.getUserId(), UserType.USER.name());
+	}
+
+	private UserDto register(String username) {
+		UserRegistrationDto dto = new UserRegistrationDto();
+		dto.setUsername(username);
+		dto.setPassword("secret-password");
+		dto.setName("Filter");
+		dto.setSurname("User");
+		dto.setEmail(username + "@example.com");
+		dto.setDob(LocalDateTime.of(1990, 1, 1, 0, 0));
+		dto.setUserType(UserType.USER);
+		return userService.registerUser(dto);
+	}
+}
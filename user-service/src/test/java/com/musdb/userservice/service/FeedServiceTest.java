@@ -0,0 +1,143 @@
+package com.musdb.userservice.service;
+
+import com.musdb.userservice.dto.CursorPageDto;
+import com.musdb.userservice.dto.FeedItemDto;
+import com.musdb.userservice.dto.UserRegistrationDto;
+import com.musdb.userservice.feed.TimelineStore;
+import com.musdb.userservice.model.UserType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "user.feed.pull-threshold=2")
+@ActiveProfiles("test")
+class FeedServiceTest {
+	private static final AtomicLong PHOTO_IDS = new AtomicLong(1000);
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private FeedService feedService;
+
+	@Autowired
+	private TimelineStore timelineStore;
+
+	@Test
+	void mergesPushedAndPulledPhotosNewestFirst() {
+		Long reader = register("feed-reader");
+		Long other = register("feed-other");
+		Long author = register("feed-author");
+		Long celebrity = register("feed-celebrity");
+		userService.followUser(reader, author);
+		userService.followUser(reader, celebrity);
+		userService.followUser(other, celebrity);
+
+		Long first = upload(author);
+		Long second = upload(celebrity);
+		Long third = upload(author);
+
+		assertEquals(List.of(third, second, first), photoIds(feedService.getFeed(reader, null, 10)));
+		assertEquals(List.of(second), photoIds(feedService.getFeed(other, null, 10)));
+	}
+
+	@Test
+	void pagesContinueFromCursor() {
+		Long reader = register("feed-pager");
+		Long author = register("feed-pager-author");
+		userService.followUser(reader, author);
+		Long first = upload(author);
+		Long second = upload(author);
+		Long third = upload(author);
+
+		CursorPageDto<FeedItemDto> page = feedService.getFeed(reader, null, 2);
+		assertEquals(List.of(third, second), photoIds(page));
+
+		CursorPageDto<FeedItemDto> next = feedService.getFeed(reader, page.getNextCursor(), 2);
+		assertEquals(List.of(first), photoIds(next));
+		assertNull(next.getNextCursor());
+	}
+
+	@Test
+	void ordersAndPagesByUploadTimeNotPhotoId() {
+		Long reader = register("feed-clock");
+		Long author = register("feed-clock-author");
+		userService.followUser(reader, author);
+		LocalDateTime now = LocalDateTime.now();
+		// İçe aktarılan eski fotoğraf daha büyük photoId alır, aynı anda yüklenenler photoId ile ayrılır
+		Long recent = upload(author, now);
+		Long sameTimeLow = upload(author, now.minusMinutes(5));
+		Long sameTimeHigh = upload(author, now.minusMinutes(5));
+		Long imported = upload(author, now.minusDays(30));
+
+		CursorPageDto<FeedItemDto> page = feedService.getFeed(reader, null, 2);
+		assertEquals(List.of(recent, sameTimeHigh), photoIds(page));
+
+		CursorPageDto<FeedItemDto> next = feedService.getFeed(reader, page.getNextCursor(), 2);
+		assertEquals(List.of(sameTimeLow, imported), photoIds(next));
+		assertNull(next.getNextCursor());
+	}
+
+	@Test
+	void followBackfillsAndUnfollowRemovesAuthor() {
+		Long reader = register("feed-follower");
+		Long author = register("feed-followed");
+		Long photo = upload(author);
+
+		userService.followUser(reader, author);
+		assertEquals(List.of(photo), photoIds(feedService.getFeed(reader, null, 10)));
+
+		userService.unfollowUser(reader, author);
+		assertEquals(List.of(), photoIds(feedService.getFeed(reader, null, 10)));
+	}
+
+	@Test
+	void rebuildsLostTimelineFromStoredPosts() {
+		Long reader = register("feed-restart");
+		Long author = register("feed-restart-author");
+		Long older = upload(author);
+		// Akış bellekteyken takip edilir; geçmiş fotoğraflar tablodan eklenir
+		assertEquals(List.of(), photoIds(feedService.getFeed(reader, null, 10)));
+		userService.followUser(reader, author);
+		Long newer = upload(author);
+		assertEquals(List.of(newer, older), photoIds(feedService.getFeed(reader, null, 10)));
+
+		// Yeniden başlatma ya da boşta kalma sonrası bellekteki akış yoktur
+		timelineStore.removeUser(reader);
+		timelineStore.removeUser(author);
+
+		assertEquals(List.of(newer, older), photoIds(feedService.getFeed(reader, null, 10)));
+	}
+
+	private Long upload(Long authorId) {
+		return upload(authorId, LocalDateTime.now());
+	}
+
+	private Long upload(Long authorId, LocalDateTime createdAt) {
+		Long photoId = PHOTO_IDS.incrementAndGet();
+		feedService.onPhotoUploaded(new FeedItemDto(photoId, authorId, "photo-" + photoId, createdAt));
+		return photoId;
+	}
+
+	private List<Long> photoIds(CursorPageDto<FeedItemDto> page) {
+		return page.getItems().stream().map(FeedItemDto::getPhotoId).toList();
+	}
+
+	private Long register(String username) {
+		UserRegistrationDto dto = new UserRegistrationDto();
+		dto.setUsername(username);
+		dto.setPassword("secret-password");
+		dto.setName("Feed");
+		dto.setSurname("User");
+		dto.setUserType(UserType.USER);
+		return userService.registerUser(dto).getUserId();
+	}
+}
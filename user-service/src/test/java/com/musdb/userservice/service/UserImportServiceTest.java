@@ -0,0 +1,132 @@
+package com.musdb.userservice.service;
+
+import com.musdb.userservice.dto.ImportJobDto;
+import com.musdb.userservice.dto.ImportRequestDto;
+import com.musdb.userservice.dto.UserRegistrationDto;
+import com.musdb.userservice.model.ImportJob;
+import com.musdb.userservice.model.ImportStatus;
+import com.musdb.userservice.model.UserCredential;
+import com.musdb.userservice.model.UserType;
+import com.musdb.userservice.repository.ImportJobRepository;
+import com.musdb.userservice.repository.UserCredentialRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "user.import.batch-size=2")
+@ActiveProfiles("test")
+class UserImportServiceTest {
+	private static final String LEGACY_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserCredentialRepository userCredentialRepository;
+
+	@Autowired
+	private ImportJobRepository importJobRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${user.import.dir}")
+	private String importDir;
+
+	@Test
+	void importsValidRowsAndCountsSkippedAndFailed() throws Exception {
+		register("import-existing");
+		writeManifest("users-report.csv",
+				"username,password,passwordHash,name,surname,dob,userType",
+				"import-alice,secret-pass,,Alice,Smith,1990-01-02,ARTIST",
+				"import-bob,,\"" + LEGACY_HASH + "\",Bob,Jones,,",
+				"import-existing,secret-pass,,Old,User,,",
+				"import-alice,secret-pass,,Alice,Again,,",
+				"import-short,short,,Short,Pass,,",
+				"import-broken,\"unterminated");
+
+		ImportJobDto job = await(userImportService.startImport(request("users-report.csv")).getJobId());
+
+		assertEquals(ImportStatus.COMPLETED, job.getStatus());
+		assertEquals(6, job.getRecordsCommitted());
+		assertEquals(2, job.getImported());
+		assertEquals(2, job.getSkipped());
+		assertEquals(2, job.getFailed());
+
+		UserCredential alice = userCredentialRepository.findByUsername("import-alice").orElseThrow();
+		assertTrue(passwordEncoder.matches("secret-pass", alice.getPassword()));
+		assertEquals(UserType.ARTIST, userService.getUserById(alice.getUserId()).getUserType());
+		assertEquals(LEGACY_HASH, userCredentialRepository.findByUsername("import-bob").orElseThrow().getPassword());
+	}
+
+	@Test
+	void resumeContinuesAfterCommittedRecords() throws Exception {
+		writeManifest("users-resume.ndjson",
+				"{\"username\":\"resume-1\",\"password\":\"secret-pass\",\"name\":\"A\",\"surname\":\"B\"}",
+				"{\"username\":\"resume-2\",\"password\":\"secret-pass\",\"name\":\"A\",\"surname\":\"B\"}",
+				"{\"username\":\"resume-3\",\"password\":\"secret-pass\",\"name\":\"A\",\"surname\":\"B\"}");
+
+		// İlk iki kaydı yazdıktan sonra yarıda kalmış iş
+		ImportJob interrupted = new ImportJob("users-resume.ndjson");
+		interrupted.setStatus(ImportStatus.FAILED);
+		interrupted.setRecordsCommitted(2);
+		interrupted.setImported(2);
+		interrupted.setFinishedAt(LocalDateTime.now());
+		interrupted = importJobRepository.save(interrupted);
+
+		ImportJobDto job = await(userImportService.resumeImport(interrupted.getJobId()).getJobId());
+
+		assertEquals(ImportStatus.COMPLETED, job.getStatus());
+		assertEquals(3, job.getRecordsCommitted());
+		assertEquals(3, job.getImported());
+		assertFalse(userCredentialRepository.existsByUsername("resume-1"));
+		assertTrue(userCredentialRepository.existsByUsername("resume-3"));
+	}
+
+	private ImportJobDto await(Long jobId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		ImportJobDto job = userImportService.getImport(jobId);
+		while (job.getStatus() == ImportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			job = userImportService.getImport(jobId);
+		}
+		return job;
+	}
+
+	private void writeManifest(String name, String... lines) throws Exception {
+		Path dir = Paths.get(importDir);
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve(name), String.join("\n", lines) + "\n");
+	}
+
+	private ImportRequestDto request(String manifest) {
+		ImportRequestDto request = new ImportRequestDto();
+		request.setManifest(manifest);
+		return request;
+	}
+
+	private void register(String username) {
+		UserRegistrationDto registration = new UserRegistrationDto();
+		registration.setName("Existing");
+		registration.setSurname("User");
+		registration.setUsername(username);
+		registration.setPassword("password123");
+		registration.setUserType(UserType.USER);
+		userService.registerUser(registration);
+	}
+}